@@ -135,7 +135,7 @@ public class AssetsProcessor extends BaseProcessor{
                     @Override
                     public void load(MethodSpec.Builder builder){
                         builder.addStatement("var n = $S + name", directory() + "/")
-                            .addStatement("var path = $T.tree.get(n + $S).exists() ? n + $S : n + $S", cName(Vars.class), ".g3db", ".g3db", ".g3dj")
+                            .addStatement("var path = $T.path(n)", tName(elements.getTypeElement("unity.assets.loaders.ModelCodec")))
                             .addCode(lnew())
                             .addStatement("var model = new $T()", tName(type()))
                             .addCode(lnew())
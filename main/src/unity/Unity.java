@@ -27,6 +27,7 @@ import unity.assets.type.g3d.*;
 import unity.async.*;
 import unity.content.*;
 import unity.editor.*;
+import unity.entities.*;
 import unity.gen.*;
 import unity.map.*;
 import unity.map.cinematic.*;
@@ -57,6 +58,8 @@ public class Unity extends Mod{
     public static AntiCheat antiCheat;
     /** World context binding mostly handling monolith block indexing. */
     public static MonolithWorld monolithWorld;
+    /** Pooled exp orb simulation, replacing per-orb bullet entities. */
+    public static ExpOrbSystem expOrbs;
     /** Abstract developer build specification; dev builds allow users to have various developer accessibility. */
     public static DevBuild dev;
 
@@ -99,6 +102,7 @@ public class Unity extends Mod{
         if(!headless){
             Core.assets.setLoader(Model.class, ".g3dj", new ModelLoader(tree, new JsonReader()));
             Core.assets.setLoader(Model.class, ".g3db", new ModelLoader(tree, new UBJsonReader()));
+            Core.assets.setLoader(Model.class, "." + ModelCodec.extension, new ModelLoader(tree, null));
 
             Core.assets.setLoader(WavefrontObject.class, new WavefrontObjectLoader(tree));
 
@@ -203,6 +207,7 @@ public class Unity extends Mod{
         tap = new TapHandler();
         antiCheat = new AntiCheat();
         monolithWorld = new MonolithWorld();
+        expOrbs = new ExpOrbSystem();
 
         cinematicEditor = new CinematicEditor();
 
@@ -0,0 +1,104 @@
+package unity.ai;
+
+import arc.*;
+import arc.math.*;
+import arc.util.*;
+import mindustry.game.*;
+import mindustry.gen.*;
+
+import java.util.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Spreads expensive, periodic AI work across ticks. Every {@link Job} starts at a per-unit phase offset so units spawned
+ * together don't retarget on the same tick, runs less often for units that are far from every player and off-screen, and
+ * gets deferred to the next tick once its team has already run {@link #budget} jobs in the current one. Each team has its
+ * own budget, so one team's wave can't stall the AI of the others. A job overdue by {@link #maxDelay} ticks runs regardless
+ * of the budget, so no unit is starved by those updated before it.
+ */
+public class AIScheduler{
+    /** Maximum amount of jobs granted per team per tick, not counting overdue jobs. */
+    public static int budget = 48;
+    /** Ticks past its interval after which a deferred job is granted even if the budget is spent. */
+    public static float maxDelay = 10f;
+    /** Units further than this from every player and outside the camera run their jobs {@link #lodScale} times less often. */
+    public static float lodRange = 60f * tilesize;
+    public static float lodScale = 3f;
+
+    /** Jobs granted and deferred in the last finished tick. */
+    public static int lastGranted, lastDeferred;
+    /** Jobs granted and deferred since the game started. */
+    public static long totalGranted, totalDeferred;
+
+    private static long frame = -1;
+    private static int granted, deferred;
+
+    private static final long[] teamFrames = new long[Team.all.length];
+    private static final int[] teamGranted = new int[Team.all.length];
+
+    static{
+        Arrays.fill(teamFrames, -1);
+    }
+
+    /**
+     * Takes one unit of this tick's budget of the given team.
+     * @param overdue How many ticks the job is past its interval; jobs overdue by {@link #maxDelay} are always granted.
+     * @return Whether the job may run now; if not, it should be retried next tick.
+     */
+    public static boolean request(Team team, float overdue){
+        long frameId = Core.graphics.getFrameId();
+        if(frameId != frame){
+            frame = frameId;
+            lastGranted = granted;
+            lastDeferred = deferred;
+            granted = deferred = 0;
+        }
+
+        int id = team.id;
+        if(teamFrames[id] != frameId){
+            teamFrames[id] = frameId;
+            teamGranted[id] = 0;
+        }
+
+        if(teamGranted[id] >= budget && overdue < maxDelay){
+            deferred++;
+            totalDeferred++;
+            return false;
+        }
+
+        teamGranted[id]++;
+        granted++;
+        totalGranted++;
+        return true;
+    }
+
+    /** @return The multiplier applied to the interval of the given unit's jobs. */
+    public static float scale(Unit unit){
+        if(!headless && Core.camera.bounds(Tmp.r1).overlaps(unit.x - unit.hitSize / 2f, unit.y - unit.hitSize / 2f, unit.hitSize, unit.hitSize)) return 1f;
+
+        for(Player player : Groups.player){
+            if(!player.dead() && player.within(unit, lodRange)) return 1f;
+        }
+        return lodScale;
+    }
+
+    /** A periodic job of a single AI controller. */
+    public static class Job{
+        private float time = Float.NaN;
+
+        /** @return Whether the job is due and has been granted budget this tick. */
+        public boolean get(Unit unit, float interval){
+            if(Float.isNaN(time)) time = Mathf.randomSeed(unit.id, 0f, interval);
+
+            time += Time.delta;
+            if(time < interval) return false;
+
+            float due = lodScale > 1f ? interval * scale(unit) : interval;
+            if(time < due || !request(unit.team, time - due)) return false;
+
+            time = 0f;
+            return true;
+        }
+    }
+}
@@ -23,7 +23,7 @@ public class AssistantAI extends FlyingAI{
     protected Teamc user;
 
     protected final Seq<Assistance> services;
-    protected final Interval timer = new Interval(1);
+    protected final AIScheduler.Job userJob = new AIScheduler.Job(), serviceJob = new AIScheduler.Job();
     protected Assistance current;
 
     public AssistantAI(Assistance... services){
@@ -63,17 +63,20 @@ public class AssistantAI extends FlyingAI{
             current = null;
         }
 
-        for(Assistance service : services){
-            if(current != null && !current.predicate.get(this)){
-                current.dispose(this);
-                current = null;
-            }
+        //scanning every service's predicate is costly; the current service is still validated every tick above
+        if(serviceJob.get(unit, 10f)){
+            for(Assistance service : services){
+                if(current != null && !current.predicate.get(this)){
+                    current.dispose(this);
+                    current = null;
+                }
 
-            if(current != service && (current == null || service.priority < current.priority) && service.predicate.get(this)){
-                if(current != null) current.dispose(this);
+                if(current != service && (current == null || service.priority < current.priority) && service.predicate.get(this)){
+                    if(current != null) current.dispose(this);
 
-                current = service;
-                break;
+                    current = service;
+                    break;
+                }
             }
         }
 
@@ -82,7 +85,7 @@ public class AssistantAI extends FlyingAI{
             current.initialized = true;
         }
 
-        if((!userValid() || (!(user instanceof Unit unit) || !unit.isPlayer())) && timer.get(5f)) updateUser();
+        if((!userValid() || (!(user instanceof Unit unit) || !unit.isPlayer())) && userJob.get(this.unit, 5f)) updateUser();
         if(current != null) current.update(this);
     }
 
@@ -0,0 +1,141 @@
+package unity.ai;
+
+import arc.*;
+import arc.struct.*;
+import arc.util.*;
+import mindustry.game.*;
+import mindustry.game.EventType.*;
+import mindustry.gen.*;
+
+import java.util.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Damaged buildings of a team, kept in a max-heap keyed by missing health and shared by all of that team's healers. The heap
+ * is only rebuilt from the block indexer when a healer asks for {@linkplain #top(int, Seq) candidates}, at most once every
+ * {@link #rebuildInterval} ticks. Healers claim the building they're healing, so other healers can avoid piling onto it;
+ * claims made in one frame are visible during the next.
+ */
+public class DamagedIndex{
+    private static final DamagedIndex[] indices = new DamagedIndex[Team.all.length];
+    private static final IntSeq frontier = new IntSeq();
+
+    /** Minimum ticks between heap rebuilds. */
+    public static float rebuildInterval = 20f;
+
+    static{
+        Events.on(ResetEvent.class, e -> Arrays.fill(indices, null));
+    }
+
+    public final Team team;
+
+    Building[] heap = new Building[16];
+    float[] keys = new float[16];
+    int size;
+
+    IntIntMap claims = new IntIntMap(), lastClaims = new IntIntMap();
+    private long frame = -1;
+    private float lastRebuild = -1f;
+
+    DamagedIndex(Team team){
+        this.team = team;
+    }
+
+    /** @return The index of the given team's damaged buildings, with its claims up to date. */
+    public static DamagedIndex get(Team team){
+        DamagedIndex index = indices[team.id];
+        if(index == null) index = indices[team.id] = new DamagedIndex(team);
+
+        index.update();
+        return index;
+    }
+
+    /** Collects up to {@code amount} buildings with the most missing health, in descending order. */
+    public void top(int amount, Seq<Building> out){
+        out.clear();
+        if(lastRebuild < 0f || Time.time - lastRebuild >= rebuildInterval || Time.time < lastRebuild) rebuild();
+        if(size == 0) return;
+
+        frontier.clear();
+        frontier.add(0);
+        while(out.size < amount && !frontier.isEmpty()){
+            int best = 0;
+            for(int i = 1; i < frontier.size; i++){
+                if(keys[frontier.items[i]] > keys[frontier.items[best]]) best = i;
+            }
+
+            int idx = frontier.removeIndex(best);
+
+            // Entries may be a few ticks old; skip buildings that were destroyed or fully healed since.
+            Building b = heap[idx];
+            if(b.isValid() && b.damaged()) out.add(b);
+
+            int child = idx * 2 + 1;
+            if(child < size) frontier.add(child);
+            if(child + 1 < size) frontier.add(child + 1);
+        }
+    }
+
+    /** Registers a healer working on the given building this frame. */
+    public void claim(Building build){
+        claims.put(build.id, claims.get(build.id, 0) + 1);
+    }
+
+    /** @return How many healers worked on the given building last frame. */
+    public int claims(Building build){
+        return lastClaims.get(build.id, 0);
+    }
+
+    void update(){
+        long frameId = Core.graphics.getFrameId();
+        if(frameId == frame) return;
+        frame = frameId;
+
+        IntIntMap last = lastClaims;
+        lastClaims = claims;
+        claims = last;
+        claims.clear();
+    }
+
+    void rebuild(){
+        lastRebuild = Time.time;
+
+        Seq<Building> damaged = indexer.getDamaged(team);
+        if(heap.length < damaged.size){
+            heap = new Building[damaged.size];
+            keys = new float[damaged.size];
+        }
+
+        size = 0;
+        for(int i = 0; i < damaged.size; i++){
+            Building b = damaged.items[i];
+            if(!b.isValid() || !b.damaged()) continue;
+
+            heap[size] = b;
+            keys[size] = b.maxHealth - b.health;
+            size++;
+        }
+        for(int i = size; i < heap.length && heap[i] != null; i++) heap[i] = null;
+
+        for(int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+    }
+
+    void siftDown(int idx){
+        Building b = heap[idx];
+        float key = keys[idx];
+        while(true){
+            int child = idx * 2 + 1;
+            if(child >= size) break;
+            if(child + 1 < size && keys[child + 1] > keys[child]) child++;
+            if(keys[child] <= key) break;
+
+            heap[idx] = heap[child];
+            keys[idx] = keys[child];
+            idx = child;
+        }
+
+        heap[idx] = b;
+        keys[idx] = key;
+    }
+}
@@ -16,6 +16,12 @@ import static mindustry.Vars.*;
 public class DistanceGroundAI extends GroundAI{
     protected boolean lockTarget;
     protected float lockTimer = 60f;
+    protected final AIScheduler.Job retargetJob = new AIScheduler.Job();
+
+    @Override
+    public boolean retarget(){
+        return retargetJob.get(unit, target == null ? 40f : 90f);
+    }
 
     @Override
     public void updateMovement(){
@@ -10,6 +10,7 @@ import mindustry.gen.*;
 import mindustry.world.*;
 import unity.entities.*;
 import unity.gen.*;
+import unity.mod.*;
 import unity.util.*;
 import unity.world.MonolithWorld.*;
 
@@ -67,7 +68,7 @@ public class MonolithSoulAI implements UnitController{
                 Chunk in = formTarget.within(unit) ? formTarget : monolithWorld.getChunk(World.toTile(unit.x), World.toTile(unit.y));
                 if(in != null){
                     for(int i = 0; i < 3; i++){ // Try finding 3 times.
-                        Tile tile = in.monolithTiles.random();
+                        Tile tile = in.randomMonolithTile();
                         if(tile != null && !unit.forms().contains(tile) && unit.forms().size < 5){
                             unit.form(tile);
                             break;
@@ -100,7 +101,7 @@ public class MonolithSoulAI implements UnitController{
             // If it can't find any vessels to join, it'll start finding forming locations.
             if(joinTarget == null){
                 float r = range * range;
-                formTarget = monolithWorld.nearest(unit.x, unit.y, range, c -> Math.min(c.monolithTiles.size, 5) * (r / unit.dst2(c.centerX, c.centerY)));
+                formTarget = monolithWorld.nearest(unit.x, unit.y, range, c -> Math.min(c.count(Faction.monolith), 5) * (r / unit.dst2(c.centerX, c.centerY)));
             }else{
                 formTarget = null;
             }
@@ -12,7 +12,11 @@ import mindustry.type.weapons.*;
 
 public class NewHealerAI extends FlyingAI{
     final static int depth = 32;
+    /** Score subtracted per healer already working on a building. */
+    final static float claimPenalty = 2000f;
+    final static Seq<Building> candidates = new Seq<>();
 
+    final AIScheduler.Job retargetJob = new AIScheduler.Job();
     float switchTime = 0f;
     boolean findTile = false;
 
@@ -29,6 +33,7 @@ public class NewHealerAI extends FlyingAI{
     public void updateUnit(){
         super.updateUnit();
         switchTime -= Time.delta;
+        if(target instanceof Building b) DamagedIndex.get(unit.team).claim(b);
     }
 
     @Override
@@ -74,15 +79,17 @@ public class NewHealerAI extends FlyingAI{
         Building build = null;
         float buildScore = -Float.MAX_VALUE;
         if(ground && findTile){
-            Seq<Building> buildings = Vars.indexer.getDamaged(unit.team);
-            int len = Math.min(buildings.size, depth);
-            for(int i = 0; i < len; i++){
-                float s = calculateScore(buildings.get(i), sd);
+            DamagedIndex index = DamagedIndex.get(unit.team);
+            index.top(depth, candidates);
+            for(int i = 0; i < candidates.size; i++){
+                Building b = candidates.items[i];
+                float s = calculateScore(b, sd) - (index.claims(b) - (b == target ? 1 : 0)) * claimPenalty;
                 if(s > buildScore){
                     buildScore = s;
-                    build = buildings.get(i);
+                    build = b;
                 }
             }
+            candidates.clear();
         }
 
         Seq<Unit> units = unit.team.data().units;
@@ -107,7 +114,7 @@ public class NewHealerAI extends FlyingAI{
 
     @Override
     public boolean retarget(){
-        return switchTime <= 0f && super.retarget();
+        return switchTime <= 0f && retargetJob.get(unit, target == null ? 40f : 90f);
     }
 
     float calculateScore(Healthc target, float s){
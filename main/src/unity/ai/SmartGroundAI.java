@@ -3,7 +3,6 @@ package unity.ai;
 import arc.*;
 import arc.math.*;
 import arc.math.geom.*;
-import arc.math.geom.QuadTree.*;
 import arc.struct.*;
 import arc.util.*;
 import mindustry.*;
@@ -13,10 +12,6 @@ import mindustry.entities.units.*;
 import mindustry.gen.*;
 import mindustry.type.*;
 import mindustry.world.*;
-import mindustry.world.blocks.defense.Wall.*;
-import mindustry.world.blocks.defense.turrets.*;
-import mindustry.world.blocks.defense.turrets.Turret.*;
-import mindustry.world.blocks.storage.CoreBlock.*;
 import mindustry.world.meta.*;
 import unity.type.*;
 import unity.util.*;
@@ -32,8 +27,8 @@ public class SmartGroundAI extends AIController{
     FloatSeq score = new FloatSeq(), tmpf = new FloatSeq();
     Seq<Healthc> targets = new Seq<>(), tmp = new Seq<>();
     Healthc[] targetArray;
-    QuadTree<QuadTreeObject> tree = new QuadTree<>(new Rect(-finalWorldBounds, -finalWorldBounds, world.width() * tilesize + finalWorldBounds * 2f, world.height() * tilesize + finalWorldBounds * 2f));
     IntSet occupied = new IntSet();
+    AIScheduler.Job gatherJob = new AIScheduler.Job(), mountJob = new AIScheduler.Job();
     float retarget, aimX, aimY;
     int targetIdx;
     boolean targeting = false, set = false;
@@ -43,8 +38,7 @@ public class SmartGroundAI extends AIController{
     }
 
     void updateScoring(){
-        boolean tmr = timer.get(1, 20f);
-        if(tmr) tree.clear();
+        boolean tmr = mountJob.get(unit, 20f);
 
         UnitType t = unit.type;
         tmp.clear();
@@ -59,33 +53,14 @@ public class SmartGroundAI extends AIController{
                 boolean invalid = !h.isAdded() || Units.invalidateTarget(h, unit.team, unit.x, unit.y, t.maxRange);
                 if(!invalid){
                     if(unit.within(h, mainMountsRange)){
-                        if(h instanceof Unit){
-                            Unit u = (Unit)h;
-                            tmpf.add(u.x, u.y, u.health + u.type.dpsEstimate);
-                            updateScore(unit.angleTo(u), unit.dst(u), false);
-                        }else if(h instanceof Building){
-                            Building b = (Building)h;
-                            float sc = b.health;
-                            //float sc = b instanceof TurretBuild tr && tr.hasAmmo() ? ((tr.peekAmmo().estimateDPS() / ((Turret)tr.block).reloadTime) * ((Turret)tr.block).shots) : 0f;
-                            if(b instanceof TurretBuild){
-                                TurretBuild tr = (TurretBuild)b;
-                                Turret tt = (Turret)b.block;
-                                sc += tr.hasAmmo() ? ((tr.peekAmmo().estimateDPS() / tt.reloadTime) * tt.shots) : 0f;
-                            }else if(b instanceof WallBuild){
-                                sc *= -1f;
-                            }else if(b instanceof CoreBuild){
-                                sc *= 10f;
-                            }
-                            tmpf.add(b.x, b.y, sc);
-                            updateScore(unit.angleTo(b), unit.dst(b), false);
+                        if(h instanceof Unit || h instanceof Building){
+                            tmpf.add(h.x(), h.y(), ThreatIndex.threat(h));
+                            updateScore(unit.angleTo(h), unit.dst(h), false);
                         }
                         float an = unit.angleTo(h);
                         if(tmpAngleB == -361f) tmpAngleB = an;
                         tmpAngle = an;
                     }
-                    //tree.insert((QuadTreeObject)h);
-                    //if(tmr) tmp.add(h);
-                    if(tmr) tree.insert((QuadTreeObject)h);
                 }
                 return invalid;
             });
@@ -127,6 +102,7 @@ public class SmartGroundAI extends AIController{
 
         if(tmr){
             occupied.clear();
+            ThreatIndex threats = ThreatIndex.get(unit.team);
 
             for(int i = 0; i < unit.mounts.length; i++){
                 WeaponMount m = unit.mounts[i];
@@ -140,11 +116,11 @@ public class SmartGroundAI extends AIController{
                 mountY = unit.y + Angles.trnsy(unit.rotation - 90, w.x, w.y),
                 range = w.bullet.range();
 
-                Rect r = Tmp.r1.setCentered(mountX, mountY, range * 2f);
+                Rect r = Tmp.r1.setCentered(mountX, mountY, (range + threats.padding()) * 2f);
 
-                tree.intersect(r, q -> {
+                threats.tree.intersect(r, q -> {
                     Healthc h = (Healthc)q;
-                    if(h.within(mountX, mountY, range + (((Sized)q).hitSize() / 2f))) tmp.add(h);
+                    if(h.within(mountX, mountY, range + (((Sized)q).hitSize() / 2f)) && !Units.invalidateTarget(h, unit.team, unit.x, unit.y, t.maxRange)) tmp.add(h);
                 });
 
                 if(!tmp.isEmpty()){
@@ -194,7 +170,7 @@ public class SmartGroundAI extends AIController{
         }
 
         UnitType t = unit.type;
-        if(timer.get(0, 15f)){
+        if(gatherJob.get(unit, 15f)){
             targets.clear();
             Rect r = Tmp.r1.setCentered(unit.x, unit.y, t.maxRange * 2f);
 
@@ -0,0 +1,94 @@
+package unity.ai;
+
+import arc.*;
+import arc.math.geom.*;
+import arc.math.geom.QuadTree.*;
+import arc.util.*;
+import mindustry.game.*;
+import mindustry.game.EventType.*;
+import mindustry.gen.*;
+import mindustry.world.blocks.defense.Wall.*;
+import mindustry.world.blocks.defense.turrets.*;
+import mindustry.world.blocks.defense.turrets.Turret.*;
+import mindustry.world.blocks.storage.CoreBlock.*;
+
+import java.util.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Every unit and building that is hostile to a team, indexed in a single quadtree shared by all of that team's AI. The tree is
+ * rebuilt at most once every {@link #rebuildInterval} ticks no matter how many units query it, and is only meant to be read.
+ * Units are filed into the tree by where they were at the last rebuild, so queries must be grown by {@link #padding()}.
+ */
+public class ThreatIndex{
+    public static final float rebuildInterval = 20f;
+
+    private static final ThreatIndex[] indices = new ThreatIndex[Team.all.length];
+
+    static{
+        Events.on(ResetEvent.class, e -> Arrays.fill(indices, null));
+    }
+
+    public final Team team;
+    public final QuadTree<QuadTreeObject> tree;
+
+    private float lastRebuild = -1f, maxSpeed;
+
+    ThreatIndex(Team team){
+        this.team = team;
+        tree = new QuadTree<>(new Rect(-finalWorldBounds, -finalWorldBounds, world.width() * tilesize + finalWorldBounds * 2f, world.height() * tilesize + finalWorldBounds * 2f));
+    }
+
+    /** @return The up-to-date index of everything hostile to the given team. */
+    public static ThreatIndex get(Team team){
+        ThreatIndex index = indices[team.id];
+        if(index == null) index = indices[team.id] = new ThreatIndex(team);
+
+        index.update();
+        return index;
+    }
+
+    /**
+     * @return How far any indexed unit may have moved since the tree was rebuilt. Query rectangles must be grown by this much
+     * on every side, or units that crossed into another node since are missed.
+     */
+    public float padding(){
+        return maxSpeed * Math.max(Time.time - lastRebuild, 0f);
+    }
+
+    /** Scores how threatening a target is; walls score negatively and cores are heavily prioritised. */
+    public static float threat(Healthc h){
+        if(h instanceof Unit u) return u.health + u.type.dpsEstimate;
+        if(h instanceof Building b){
+            float sc = b.health;
+            if(b instanceof TurretBuild tr){
+                Turret tt = (Turret)b.block;
+                sc += tr.hasAmmo() ? ((tr.peekAmmo().estimateDPS() / tt.reloadTime) * tt.shots) : 0f;
+            }else if(b instanceof WallBuild){
+                sc *= -1f;
+            }else if(b instanceof CoreBuild){
+                sc *= 10f;
+            }
+            return sc;
+        }
+        return h.health();
+    }
+
+    void update(){
+        if(lastRebuild >= 0f && Time.time >= lastRebuild && Time.time - lastRebuild < rebuildInterval) return;
+        lastRebuild = Time.time;
+
+        tree.clear();
+        maxSpeed = 0f;
+        for(Unit u : Groups.unit){
+            if(u.team != team){
+                tree.insert(u);
+                maxSpeed = Math.max(maxSpeed, Math.max(u.speed(), u.vel.len()));
+            }
+        }
+        for(Building b : Groups.build){
+            if(b.team != team) tree.insert(b);
+        }
+    }
+}
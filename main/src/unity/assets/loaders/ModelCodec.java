@@ -0,0 +1,417 @@
+package unity.assets.loaders;
+
+import arc.files.*;
+import arc.graphics.*;
+import arc.graphics.gl.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import unity.assets.type.g3d.model.*;
+import unity.util.*;
+
+import java.io.*;
+import java.nio.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Reads and writes {@code .g3dc} files, a compact binary form of {@link ModelData} baked from {@code .g3dj}/{@code .g3db}
+ * files by the tools module. Vertex and index arrays are stored raw, so they are read in bulk straight into primitive arrays
+ * without building any intermediate json tree.
+ */
+public final class ModelCodec{
+    public static final String extension = "g3dc";
+    public static final int magic = 0x55334443, version = 1;
+
+    private static final int
+        attrPosition = 0, attrNormal = 1, attrColor = 2, attrTexCoord = 3, attrBlendWeight = 4;
+
+    private ModelCodec(){
+        throw new AssertionError();
+    }
+
+    /**
+     * @return The path to load the model with the given base path from; the baked file if it's up to date, otherwise the
+     * {@code .g3db} or {@code .g3dj} source.
+     */
+    public static String path(String base){
+        Fi binary = tree.get(base + ".g3db"), source = binary.exists() ? binary : tree.get(base + ".g3dj");
+        if(Utils.upToDate(tree.get(base + "." + extension), source)) return base + "." + extension;
+
+        return source.path().endsWith(".g3db") ? base + ".g3db" : base + ".g3dj";
+    }
+
+    public static ModelData read(Fi file){
+        String dir = file.parent().path();
+        try(DataInputStream in = new DataInputStream(file.read(8192))){
+            if(in.readInt() != magic) throw new IllegalArgumentException("'" + file.name() + "' is not a compact model file");
+
+            int ver = in.readUnsignedByte();
+            if(ver != version) throw new IllegalArgumentException("Unsupported compact model version " + ver + " in '" + file.name() + "'");
+
+            ModelData model = new ModelData();
+            model.id = in.readUTF();
+
+            int meshes = in.readInt();
+            model.meshes.ensureCapacity(meshes);
+            for(int i = 0; i < meshes; i++) model.meshes.add(readMesh(in));
+
+            int materials = in.readInt();
+            model.materials.ensureCapacity(materials);
+            for(int i = 0; i < materials; i++) model.materials.add(readMaterial(in, dir));
+
+            int nodes = in.readInt();
+            model.nodes.ensureCapacity(nodes);
+            for(int i = 0; i < nodes; i++) model.nodes.add(readNode(in));
+
+            int animations = in.readInt();
+            model.animations.ensureCapacity(animations);
+            for(int i = 0; i < animations; i++) model.animations.add(readAnimation(in));
+
+            return model;
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a model to the given stream.
+     * @param dir The directory texture file names were resolved against when the model was parsed; it is stripped from them.
+     */
+    public static void write(ModelData model, OutputStream stream, String dir) throws IOException{
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 8192));
+        out.writeInt(magic);
+        out.writeByte(version);
+        out.writeUTF(model.id == null ? "" : model.id);
+
+        out.writeInt(model.meshes.size);
+        for(ModelMesh mesh : model.meshes) writeMesh(out, mesh);
+
+        out.writeInt(model.materials.size);
+        for(ModelMaterial material : model.materials) writeMaterial(out, material, dir);
+
+        out.writeInt(model.nodes.size);
+        for(ModelNode node : model.nodes) writeNode(out, node);
+
+        out.writeInt(model.animations.size);
+        for(ModelAnimation anim : model.animations) writeAnimation(out, anim);
+
+        out.flush();
+    }
+
+    static ModelMesh readMesh(DataInputStream in) throws IOException{
+        ModelMesh mesh = new ModelMesh();
+        mesh.id = in.readUTF();
+
+        int texUnit = 0, blendUnit = 0;
+        mesh.attributes = new VertexAttribute[in.readUnsignedByte()];
+        for(int i = 0; i < mesh.attributes.length; i++){
+            mesh.attributes[i] = switch(in.readUnsignedByte()){
+                case attrPosition -> VertexAttribute.position3;
+                case attrNormal -> VertexAttribute.normal;
+                case attrColor -> VertexAttribute.color;
+                case attrTexCoord -> new VertexAttribute(2, Shader.texcoordAttribute + texUnit++);
+                case attrBlendWeight -> new VertexAttribute(2, "a_blendWeight" + blendUnit++);
+                default -> throw new IllegalArgumentException("Unknown vertex attribute");
+            };
+        }
+
+        mesh.vertices = new float[in.readInt()];
+        bulk(in, mesh.vertices.length * 4).asFloatBuffer().get(mesh.vertices);
+
+        mesh.parts = new ModelMeshPart[in.readInt()];
+        for(int i = 0; i < mesh.parts.length; i++){
+            ModelMeshPart part = new ModelMeshPart();
+            part.id = in.readUTF();
+            part.primitiveType = in.readInt();
+
+            part.indices = new short[in.readInt()];
+            bulk(in, part.indices.length * 2).asShortBuffer().get(part.indices);
+
+            mesh.parts[i] = part;
+        }
+
+        return mesh;
+    }
+
+    static void writeMesh(DataOutputStream out, ModelMesh mesh) throws IOException{
+        out.writeUTF(mesh.id);
+
+        out.writeByte(mesh.attributes.length);
+        for(VertexAttribute attr : mesh.attributes){
+            if(attr == VertexAttribute.position3){
+                out.writeByte(attrPosition);
+            }else if(attr == VertexAttribute.normal){
+                out.writeByte(attrNormal);
+            }else if(attr == VertexAttribute.color){
+                out.writeByte(attrColor);
+            }else if(attr.alias.startsWith(Shader.texcoordAttribute)){
+                out.writeByte(attrTexCoord);
+            }else if(attr.alias.startsWith("a_blendWeight")){
+                out.writeByte(attrBlendWeight);
+            }else{
+                throw new IllegalArgumentException("Unknown vertex attribute '" + attr.alias + "'");
+            }
+        }
+
+        ByteBuffer vertices = ByteBuffer.allocate(mesh.vertices.length * 4);
+        vertices.asFloatBuffer().put(mesh.vertices);
+        out.writeInt(mesh.vertices.length);
+        out.write(vertices.array());
+
+        out.writeInt(mesh.parts.length);
+        for(ModelMeshPart part : mesh.parts){
+            out.writeUTF(part.id);
+            out.writeInt(part.primitiveType);
+
+            ByteBuffer indices = ByteBuffer.allocate(part.indices.length * 2);
+            indices.asShortBuffer().put(part.indices);
+            out.writeInt(part.indices.length);
+            out.write(indices.array());
+        }
+    }
+
+    static ModelMaterial readMaterial(DataInputStream in, String dir) throws IOException{
+        ModelMaterial material = new ModelMaterial();
+        material.id = in.readUTF();
+
+        int colors = in.readUnsignedByte();
+        if((colors & 1) != 0) material.diffuse = readColor(in);
+        if((colors & 2) != 0) material.ambient = readColor(in);
+        if((colors & 4) != 0) material.emissive = readColor(in);
+        if((colors & 8) != 0) material.specular = readColor(in);
+        if((colors & 16) != 0) material.reflection = readColor(in);
+
+        material.shininess = in.readFloat();
+        material.opacity = in.readFloat();
+
+        int textures = in.readInt();
+        if(textures >= 0){
+            material.textures = new Seq<>(textures);
+            for(int i = 0; i < textures; i++){
+                ModelTexture tex = new ModelTexture();
+                tex.id = in.readUTF();
+
+                String fileName = in.readUTF();
+                tex.fileName = dir + (dir.length() == 0 || dir.endsWith("/") ? "" : "/") + fileName;
+                tex.uvTranslation = new Vec2(in.readFloat(), in.readFloat());
+                tex.uvScaling = new Vec2(in.readFloat(), in.readFloat());
+                tex.usage = in.readInt();
+
+                material.textures.add(tex);
+            }
+        }
+
+        return material;
+    }
+
+    static void writeMaterial(DataOutputStream out, ModelMaterial material, String dir) throws IOException{
+        out.writeUTF(material.id);
+
+        Color[] colors = {material.diffuse, material.ambient, material.emissive, material.specular, material.reflection};
+        int mask = 0;
+        for(int i = 0; i < colors.length; i++){
+            if(colors[i] != null) mask |= 1 << i;
+        }
+
+        out.writeByte(mask);
+        for(Color color : colors){
+            if(color == null) continue;
+            out.writeFloat(color.r);
+            out.writeFloat(color.g);
+            out.writeFloat(color.b);
+        }
+
+        out.writeFloat(material.shininess);
+        out.writeFloat(material.opacity);
+
+        if(material.textures == null){
+            out.writeInt(-1);
+        }else{
+            out.writeInt(material.textures.size);
+            for(ModelTexture tex : material.textures){
+                String fileName = tex.fileName;
+                String prefix = dir + (dir.length() == 0 || dir.endsWith("/") ? "" : "/");
+                if(fileName.startsWith(prefix)) fileName = fileName.substring(prefix.length());
+
+                out.writeUTF(tex.id);
+                out.writeUTF(fileName);
+                out.writeFloat(tex.uvTranslation.x);
+                out.writeFloat(tex.uvTranslation.y);
+                out.writeFloat(tex.uvScaling.x);
+                out.writeFloat(tex.uvScaling.y);
+                out.writeInt(tex.usage);
+            }
+        }
+    }
+
+    static ModelNode readNode(DataInputStream in) throws IOException{
+        ModelNode node = new ModelNode();
+        node.id = in.readUTF();
+
+        int flags = in.readUnsignedByte();
+        if((flags & 1) != 0) node.translation = new Vec3(in.readFloat(), in.readFloat(), in.readFloat());
+        if((flags & 2) != 0) node.rotation = new Quat(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+        if((flags & 4) != 0) node.scale = new Vec3(in.readFloat(), in.readFloat(), in.readFloat());
+        if((flags & 8) != 0) node.meshId = in.readUTF();
+
+        int parts = in.readInt();
+        if(parts >= 0){
+            node.parts = new ModelNodePart[parts];
+            for(int i = 0; i < parts; i++){
+                ModelNodePart part = new ModelNodePart();
+                part.materialId = in.readUTF();
+                part.meshPartId = in.readUTF();
+                node.parts[i] = part;
+            }
+        }
+
+        int children = in.readInt();
+        if(children >= 0){
+            node.children = new ModelNode[children];
+            for(int i = 0; i < children; i++) node.children[i] = readNode(in);
+        }
+
+        return node;
+    }
+
+    static void writeNode(DataOutputStream out, ModelNode node) throws IOException{
+        out.writeUTF(node.id);
+        out.writeByte(
+            (node.translation != null ? 1 : 0) | (node.rotation != null ? 2 : 0) |
+            (node.scale != null ? 4 : 0) | (node.meshId != null ? 8 : 0)
+        );
+
+        if(node.translation != null) writeVec3(out, node.translation);
+        if(node.rotation != null) writeQuat(out, node.rotation);
+        if(node.scale != null) writeVec3(out, node.scale);
+        if(node.meshId != null) out.writeUTF(node.meshId);
+
+        if(node.parts == null){
+            out.writeInt(-1);
+        }else{
+            out.writeInt(node.parts.length);
+            for(ModelNodePart part : node.parts){
+                out.writeUTF(part.materialId);
+                out.writeUTF(part.meshPartId);
+            }
+        }
+
+        if(node.children == null){
+            out.writeInt(-1);
+        }else{
+            out.writeInt(node.children.length);
+            for(ModelNode child : node.children) writeNode(out, child);
+        }
+    }
+
+    static ModelAnimation readAnimation(DataInputStream in) throws IOException{
+        ModelAnimation anim = new ModelAnimation();
+        anim.id = in.readUTF();
+
+        int nodes = in.readInt();
+        anim.nodeAnimations.ensureCapacity(nodes);
+        for(int i = 0; i < nodes; i++){
+            ModelNodeAnimation node = new ModelNodeAnimation();
+            node.nodeId = in.readUTF();
+
+            int translation = in.readInt();
+            if(translation >= 0){
+                node.translation = new Seq<>(translation);
+                for(int k = 0; k < translation; k++){
+                    ModelNodeKeyframe<Vec3> key = new ModelNodeKeyframe<>();
+                    key.keytime = in.readFloat();
+                    key.value = new Vec3(in.readFloat(), in.readFloat(), in.readFloat());
+                    node.translation.add(key);
+                }
+            }
+
+            int rotation = in.readInt();
+            if(rotation >= 0){
+                node.rotation = new Seq<>(rotation);
+                for(int k = 0; k < rotation; k++){
+                    ModelNodeKeyframe<Quat> key = new ModelNodeKeyframe<>();
+                    key.keytime = in.readFloat();
+                    key.value = new Quat(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+                    node.rotation.add(key);
+                }
+            }
+
+            int scaling = in.readInt();
+            if(scaling >= 0){
+                node.scaling = new Seq<>(scaling);
+                for(int k = 0; k < scaling; k++){
+                    ModelNodeKeyframe<Vec3> key = new ModelNodeKeyframe<>();
+                    key.keytime = in.readFloat();
+                    key.value = new Vec3(in.readFloat(), in.readFloat(), in.readFloat());
+                    node.scaling.add(key);
+                }
+            }
+
+            anim.nodeAnimations.add(node);
+        }
+
+        return anim;
+    }
+
+    static void writeAnimation(DataOutputStream out, ModelAnimation anim) throws IOException{
+        out.writeUTF(anim.id);
+
+        out.writeInt(anim.nodeAnimations.size);
+        for(ModelNodeAnimation node : anim.nodeAnimations){
+            out.writeUTF(node.nodeId);
+
+            if(node.translation == null){
+                out.writeInt(-1);
+            }else{
+                out.writeInt(node.translation.size);
+                for(ModelNodeKeyframe<Vec3> key : node.translation){
+                    out.writeFloat(key.keytime);
+                    writeVec3(out, key.value);
+                }
+            }
+
+            if(node.rotation == null){
+                out.writeInt(-1);
+            }else{
+                out.writeInt(node.rotation.size);
+                for(ModelNodeKeyframe<Quat> key : node.rotation){
+                    out.writeFloat(key.keytime);
+                    writeQuat(out, key.value);
+                }
+            }
+
+            if(node.scaling == null){
+                out.writeInt(-1);
+            }else{
+                out.writeInt(node.scaling.size);
+                for(ModelNodeKeyframe<Vec3> key : node.scaling){
+                    out.writeFloat(key.keytime);
+                    writeVec3(out, key.value);
+                }
+            }
+        }
+    }
+
+    static ByteBuffer bulk(DataInputStream in, int length) throws IOException{
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    static Color readColor(DataInputStream in) throws IOException{
+        return new Color(in.readFloat(), in.readFloat(), in.readFloat(), 1f);
+    }
+
+    static void writeVec3(DataOutputStream out, Vec3 vec) throws IOException{
+        out.writeFloat(vec.x);
+        out.writeFloat(vec.y);
+        out.writeFloat(vec.z);
+    }
+
+    static void writeQuat(DataOutputStream out, Quat quat) throws IOException{
+        out.writeFloat(quat.x);
+        out.writeFloat(quat.y);
+        out.writeFloat(quat.z);
+        out.writeFloat(quat.w);
+    }
+}
@@ -35,6 +35,8 @@ public class ModelLoader extends SynchronousAssetLoader<Model, ModelLoader.Model
     }
 
     public ModelData parseModel(Fi handle){
+        if(handle.extEquals(ModelCodec.extension)) return ModelCodec.read(handle);
+
         JsonValue json = reader.parse(handle);
         ModelData model = new ModelData();
 
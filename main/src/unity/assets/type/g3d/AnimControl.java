@@ -1,6 +1,5 @@
 package unity.assets.type.g3d;
 
-import arc.math.*;
 import arc.math.geom.*;
 import arc.struct.*;
 import arc.util.*;
@@ -10,6 +9,7 @@ public class AnimControl{
     public static final Mat3D tmp = new Mat3D();
     public final ModelInstance model;
 
+    private final ObjectMap<BakedAnimation, Node[]> resolved = new ObjectMap<>();
     private boolean applying = false;
 
     public AnimControl(ModelInstance model){
@@ -39,24 +39,55 @@ public class AnimControl{
         apply(model.getAnimation(id), time);
     }
 
+    /** Applies the animation's shared cached pose closest to the given time. */
     public void apply(Animation animation, float time){
         check();
 
-        time = Mathf.clamp(time, 0f, animation.duration);
-        for(var anim : animation.nodeAnimations){
-            Vec3 trns = Tmp.v31.setZero();
-            Quat quat = Utils.q1.idt();
-            Vec3 scl = Tmp.v32.set(1f, 1f, 1f);
+        BakedAnimation baked = animation.bake();
+        Node[] nodes = nodes(baked);
+        float[] pose = baked.pose(time);
 
-            if(anim.translation != null && anim.translation.any()) trns.set(anim.translation.get(index(anim.translation, time)).value);
-            if(anim.rotation != null && anim.rotation.any()) quat.set(anim.rotation.get(index(anim.rotation, time)).value);
-            if(anim.scaling != null && anim.scaling.any()) scl.set(anim.scaling.get(index(anim.scaling, time)).value);
+        for(int i = 0; i < nodes.length; i++){
+            Node node = nodes[i];
+            if(node == null) continue;
 
-            anim.node.isAnimated = true;
-            anim.node.localTransform.mul(tmp.set(trns, quat, scl));
+            System.arraycopy(pose, i * 16, tmp.val, 0, 16);
+            node.isAnimated = true;
+            node.localTransform.mul(tmp);
         }
     }
 
+    /** Applies the animation sampled exactly at the given time, bypassing the pose cache. */
+    public void applyExact(Animation animation, float time){
+        check();
+
+        BakedAnimation baked = animation.bake();
+        Node[] nodes = nodes(baked);
+
+        Vec3 trns = Tmp.v31, scl = Tmp.v32;
+        Quat quat = Utils.q1;
+        for(int i = 0; i < nodes.length; i++){
+            Node node = nodes[i];
+            if(node == null) continue;
+
+            baked.sample(i, time, trns, quat, scl);
+            node.isAnimated = true;
+            node.localTransform.mul(tmp.set(trns, quat, scl));
+        }
+    }
+
+    protected Node[] nodes(BakedAnimation baked){
+        Node[] nodes = resolved.get(baked);
+        if(nodes == null){
+            nodes = new Node[baked.nodes.length];
+            for(int i = 0; i < nodes.length; i++) nodes[i] = model.getNode(baked.nodes[i]);
+
+            resolved.put(baked, nodes);
+        }
+
+        return nodes;
+    }
+
     public static <T> int index(Seq<NodeKeyframe<T>> arr, float time){
         time = Math.max(time, 0f);
 
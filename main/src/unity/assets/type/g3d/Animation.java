@@ -7,4 +7,12 @@ public class Animation{
     public float duration;
 
     public Seq<NodeAnimation> nodeAnimations = new Seq<>();
+    /** Resampled tracks and pose cache, shared with every copy made with shared keyframes. */
+    public BakedAnimation baked;
+
+    /** @return This animation's baked form, baking it first if necessary. */
+    public BakedAnimation bake(){
+        if(baked == null) baked = new BakedAnimation(this);
+        return baked;
+    }
 }
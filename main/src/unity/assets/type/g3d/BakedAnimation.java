@@ -0,0 +1,131 @@
+package unity.assets.type.g3d;
+
+import arc.math.*;
+import arc.math.geom.*;
+import arc.struct.*;
+
+/**
+ * An {@link Animation} resampled at a fixed rate into flat arrays, so sampling a track is O(1) instead of a keyframe search.
+ * Computed local transforms are cached per quantised time step and shared by every {@link AnimControl} playing this
+ * animation, since model instances copy the source animation's baked data.
+ */
+public class BakedAnimation{
+    /** Floats per sample: translation xyz, rotation xyzw, scale xyz. */
+    public static final int stride = 10;
+    /** Baked samples per animation time unit. */
+    public static float rate = 1f;
+    /** Cached poses per baked sample. */
+    public static int poseSteps = 4;
+
+    private static final Vec3 v1 = new Vec3(), v2 = new Vec3();
+    private static final Quat q1 = new Quat();
+    private static final Mat3D mat = new Mat3D();
+
+    public final String id;
+    public final float duration;
+    /** Sample count of every track. */
+    public final int samples;
+    /** Ids of the animated nodes, one per track. */
+    public final String[] nodes;
+    /** Baked samples of each track, {@code samples * stride} floats. */
+    public final float[][] tracks;
+
+    /** Per quantised time step, {@code nodes.length * 16} floats of local transforms; filled lazily. */
+    final float[][] poses;
+    final float step, poseStep;
+
+    public BakedAnimation(Animation animation){
+        id = animation.id;
+        duration = animation.duration;
+        samples = Math.max((int)Math.ceil(duration * rate), 0) + 1;
+        step = samples > 1 ? duration / (samples - 1) : 1f;
+        poseStep = step / poseSteps;
+
+        int count = animation.nodeAnimations.size;
+        nodes = new String[count];
+        tracks = new float[count][];
+        for(int i = 0; i < count; i++){
+            NodeAnimation anim = animation.nodeAnimations.get(i);
+            nodes[i] = anim.node.id;
+
+            float[] track = tracks[i] = new float[samples * stride];
+            for(int s = 0; s < samples; s++){
+                float time = Math.min(s * step, duration);
+                int off = s * stride;
+
+                Vec3 trns = anim.translation != null && anim.translation.any() ? vec(anim.translation, time, v1) : v1.setZero();
+                Quat rot = anim.rotation != null && anim.rotation.any() ? quat(anim.rotation, time, q1) : q1.idt();
+                Vec3 scl = anim.scaling != null && anim.scaling.any() ? vec(anim.scaling, time, v2) : v2.set(1f, 1f, 1f);
+
+                track[off] = trns.x;
+                track[off + 1] = trns.y;
+                track[off + 2] = trns.z;
+                track[off + 3] = rot.x;
+                track[off + 4] = rot.y;
+                track[off + 5] = rot.z;
+                track[off + 6] = rot.w;
+                track[off + 7] = scl.x;
+                track[off + 8] = scl.y;
+                track[off + 9] = scl.z;
+            }
+        }
+
+        poses = new float[(samples - 1) * poseSteps + 1][];
+    }
+
+    /** Samples one track at the given time with linear and spherical interpolation between baked samples. */
+    public void sample(int track, float time, Vec3 translation, Quat rotation, Vec3 scale){
+        float[] data = tracks[track];
+
+        float pos = Mathf.clamp(time, 0f, duration) / step;
+        int a = Math.min((int)pos, samples - 1), b = Math.min(a + 1, samples - 1);
+        float alpha = pos - a;
+
+        int ao = a * stride, bo = b * stride;
+        translation.set(data[ao], data[ao + 1], data[ao + 2]).lerp(v1.set(data[bo], data[bo + 1], data[bo + 2]), alpha);
+        rotation.set(data[ao + 3], data[ao + 4], data[ao + 5], data[ao + 6]).slerp(q1.set(data[bo + 3], data[bo + 4], data[bo + 5], data[bo + 6]), alpha);
+        scale.set(data[ao + 7], data[ao + 8], data[ao + 9]).lerp(v1.set(data[bo + 7], data[bo + 8], data[bo + 9]), alpha);
+    }
+
+    /**
+     * @return The local transforms of all tracks at the given time quantised to {@link #poseSteps} per sample, as
+     * consecutive 16-float column-major matrices. The returned array is shared and must not be modified.
+     */
+    public float[] pose(float time){
+        int index = Mathf.clamp(Math.round(Mathf.clamp(time, 0f, duration) / poseStep), 0, poses.length - 1);
+
+        float[] pose = poses[index];
+        if(pose == null){
+            pose = poses[index] = new float[nodes.length * 16];
+
+            Vec3 trns = new Vec3(), scl = new Vec3();
+            Quat rot = new Quat();
+            for(int i = 0; i < nodes.length; i++){
+                sample(i, index * poseStep, trns, rot, scl);
+                System.arraycopy(mat.set(trns, rot, scl).val, 0, pose, i * 16, 16);
+            }
+        }
+
+        return pose;
+    }
+
+    static Vec3 vec(Seq<NodeKeyframe<Vec3>> keys, float time, Vec3 out){
+        int i = AnimControl.index(keys, time);
+        NodeKeyframe<Vec3> from = keys.get(i);
+        if(i + 1 >= keys.size || time <= from.keytime) return out.set(from.value);
+
+        NodeKeyframe<Vec3> to = keys.get(i + 1);
+        if(to.keytime <= from.keytime) return out.set(to.value);
+        return out.set(from.value).lerp(to.value, Mathf.clamp((time - from.keytime) / (to.keytime - from.keytime)));
+    }
+
+    static Quat quat(Seq<NodeKeyframe<Quat>> keys, float time, Quat out){
+        int i = AnimControl.index(keys, time);
+        NodeKeyframe<Quat> from = keys.get(i);
+        if(i + 1 >= keys.size || time <= from.keytime) return out.set(from.value);
+
+        NodeKeyframe<Quat> to = keys.get(i + 1);
+        if(to.keytime <= from.keytime) return out.set(to.value);
+        return out.set(from.value).slerp(to.value, Mathf.clamp((time - from.keytime) / (to.keytime - from.keytime)));
+    }
+}
@@ -14,6 +14,11 @@ public class ModelInstance implements RenderableProvider{
     public Mat3D transform;
     public Object userData;
 
+    /** Every node in parent-before-child order, along with the index of its parent or -1; rebuilt lazily. */
+    private Node[] flatNodes;
+    private int[] flatParents;
+    private boolean[] flatChanged;
+
     public ModelInstance(Model model){
         this(model, (String[])null);
     }
@@ -61,6 +66,7 @@ public class ModelInstance implements RenderableProvider{
         }
 
         invalidate();
+        invalidateHierarchy();
     }
 
     private void copyNodes(Seq<Node> nodes, String... nodeIds){
@@ -75,6 +81,7 @@ public class ModelInstance implements RenderableProvider{
         }
 
         invalidate();
+        invalidateHierarchy();
     }
 
     public void copyAnimations(Iterable<Animation> source){
@@ -137,7 +144,10 @@ public class ModelInstance implements RenderableProvider{
             }
         }
 
-        if(animation.nodeAnimations.size > 0) animations.add(animation);
+        if(animation.nodeAnimations.size > 0){
+            if(shareKeyframes) animation.baked = sourceAnim.bake();
+            animations.add(animation);
+        }
     }
 
     private void invalidate(Node node){
@@ -197,13 +207,54 @@ public class ModelInstance implements RenderableProvider{
         }
     }
 
+    /**
+     * Updates the transforms of all nodes in one linear pass over the flattened hierarchy. Only nodes whose local transform
+     * changed, and their descendants, are recalculated.
+     */
     public void calculateTransforms(){
-        int n = nodes.size;
-        for(int i = 0; i < n; i++){
-            nodes.get(i).calculateTransforms(true);
+        if(flatNodes == null) flatten();
+
+        Node[] flat = flatNodes;
+        int[] parents = flatParents;
+        boolean[] changed = flatChanged;
+        for(int i = 0; i < flat.length; i++){
+            Node node = flat[i];
+            int parent = parents[i];
+
+            if(node.updateLocalTransform() || (parent != -1 && changed[parent])){
+                node.calculateWorldTransform();
+                changed[i] = true;
+            }else{
+                changed[i] = false;
+            }
         }
     }
 
+    /** Must be called after nodes are added to or removed from this instance's hierarchy. */
+    public void invalidateHierarchy(){
+        flatNodes = null;
+    }
+
+    private void flatten(){
+        Seq<Node> flat = new Seq<>(Node.class);
+        IntSeq parents = new IntSeq();
+
+        for(int i = 0; i < nodes.size; i++) flatten(nodes.get(i), -1, flat, parents);
+
+        flatNodes = flat.toArray();
+        flatParents = parents.toArray();
+        flatChanged = new boolean[flatNodes.length];
+        for(Node node : flatNodes) node.dirty = true;
+    }
+
+    private void flatten(Node node, int parent, Seq<Node> flat, IntSeq parents){
+        int index = flat.size;
+        flat.add(node);
+        parents.add(parent);
+
+        for(Node child : node.getChildren()) flatten(child, index, flat, parents);
+    }
+
     public Material getMaterial(){
         return materials.firstOpt();
     }
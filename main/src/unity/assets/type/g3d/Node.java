@@ -21,6 +21,10 @@ public class Node{
     public final Mat3D localTransform = new Mat3D();
     public final Mat3D globalTransform = new Mat3D();
 
+    /** Forces the local transform to be recomputed on the next {@link #updateLocalTransform()}. */
+    public boolean dirty = true;
+    private final float[] lastTransform = new float[10];
+
     public final Seq<NodePart> parts = new Seq<>(2);
 
     protected Node parent;
@@ -31,6 +35,41 @@ public class Node{
         return localTransform;
     }
 
+    /**
+     * Recomputes the local transform only if this node is animated, marked {@link #dirty}, or its translation, rotation, or
+     * scale changed since the last update.
+     * @return Whether the local transform may have changed.
+     */
+    public boolean updateLocalTransform(){
+        if(isAnimated){
+            // Reset to the rest transform once the animation stops.
+            dirty = true;
+            return true;
+        }
+
+        float[] last = lastTransform;
+        if(!dirty &&
+            last[0] == translation.x && last[1] == translation.y && last[2] == translation.z &&
+            last[3] == rotation.x && last[4] == rotation.y && last[5] == rotation.z && last[6] == rotation.w &&
+            last[7] == scale.x && last[8] == scale.y && last[9] == scale.z
+        ) return false;
+
+        last[0] = translation.x;
+        last[1] = translation.y;
+        last[2] = translation.z;
+        last[3] = rotation.x;
+        last[4] = rotation.y;
+        last[5] = rotation.z;
+        last[6] = rotation.w;
+        last[7] = scale.x;
+        last[8] = scale.y;
+        last[9] = scale.z;
+
+        dirty = false;
+        localTransform.set(translation, rotation, scale);
+        return true;
+    }
+
     public Mat3D calculateWorldTransform(){
         if(inheritTransform && parent != null){
             globalTransform.set(parent.globalTransform).mul(localTransform);
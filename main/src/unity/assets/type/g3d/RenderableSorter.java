@@ -7,15 +7,95 @@ import unity.assets.type.g3d.attribute.type.*;
 
 import java.util.*;
 
-public class RenderableSorter implements Comparator<Renderable>{
-    private Camera3D camera;
+/**
+ * Sorts renderables so opaque ones come first, front to back, followed by blended ones, back to front. Each renderable's sort
+ * key is computed once per {@link #sort(Camera3D, Seq)} call and the keys are ordered with a least significant digit radix
+ * sort over reusable buffers, so sorting is linear and allocation-free once the buffers have grown.
+ */
+public class RenderableSorter{
+    private static final int radixBits = 8, radix = 1 << radixBits;
+
     private final Vec3 tmpV1 = new Vec3();
-    private final Vec3 tmpV2 = new Vec3();
+
+    private long[] keys = {}, keysSwap = {};
+    private Renderable[] items = {}, itemsSwap = {};
+    private final int[] counts = new int[radix];
 
     public void sort(Camera3D camera, Seq<Renderable> renderables){
-        this.camera = camera;
-        renderables.sort(this);
-        this.camera = null;
+        int size = renderables.size;
+        if(size <= 1) return;
+
+        if(keys.length < size){
+            keys = new long[size];
+            keysSwap = new long[size];
+            items = new Renderable[size];
+            itemsSwap = new Renderable[size];
+        }
+
+        long and = -1L, or = 0L;
+        for(int i = 0; i < size; i++){
+            Renderable r = renderables.items[i];
+            long key = key(camera, r);
+
+            keys[i] = key;
+            items[i] = r;
+            and &= key;
+            or |= key;
+        }
+
+        long[] srcKeys = keys, dstKeys = keysSwap;
+        Renderable[] src = items, dst = itemsSwap;
+        for(int shift = 0; shift < 64; shift += radixBits){
+            // Skip digits every key agrees on.
+            if((((and ^ or) >>> shift) & (radix - 1)) == 0) continue;
+
+            Arrays.fill(counts, 0);
+            for(int i = 0; i < size; i++) counts[(int)((srcKeys[i] >>> shift) & (radix - 1))]++;
+
+            int sum = 0;
+            for(int i = 0; i < radix; i++){
+                int count = counts[i];
+                counts[i] = sum;
+                sum += count;
+            }
+
+            for(int i = 0; i < size; i++){
+                int dest = counts[(int)((srcKeys[i] >>> shift) & (radix - 1))]++;
+                dstKeys[dest] = srcKeys[i];
+                dst[dest] = src[i];
+            }
+
+            long[] tk = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tk;
+
+            Renderable[] ti = src;
+            src = dst;
+            dst = ti;
+        }
+
+        System.arraycopy(src, 0, renderables.items, 0, size);
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(itemsSwap, 0, size, null);
+    }
+
+    /**
+     * Computes a renderable's sort key: the blending flag in the top bit, then the squared camera distance as raw float bits
+     * (which order the same as the non-negative floats themselves), inverted for blended renderables, then a material bucket
+     * in the low 16 bits so equally distant renderables sharing a material end up adjacent.
+     */
+    public long key(Camera3D camera, Renderable r){
+        boolean blended = blended(r);
+        getTranslation(r.worldTransform, r.meshPart.center, tmpV1);
+
+        long depth = Float.floatToRawIntBits(camera.position.dst2(tmpV1)) & 0x7fffffffL;
+        if(blended) depth ^= 0x7fffffffL;
+
+        return (blended ? 1L << 63 : 0L) | (depth << 16) | (System.identityHashCode(r.material) & 0xffffL);
+    }
+
+    private boolean blended(Renderable r){
+        return r.material.has(BlendingAttribute.blend) && (r.material.<BlendingAttribute>get(BlendingAttribute.blend)).blended;
     }
 
     private void getTranslation(Mat3D worldTransform, Vec3 center, Vec3 output){
@@ -27,16 +107,4 @@ public class RenderableSorter implements Comparator<Renderable>{
             Mat3D.prj(output.set(center), worldTransform);
         }
     }
-
-    @Override
-    public int compare(Renderable o1, Renderable o2){
-        boolean b1 = o1.material.has(BlendingAttribute.blend) && (o1.material.<BlendingAttribute>get(BlendingAttribute.blend)).blended;
-        boolean b2 = o2.material.has(BlendingAttribute.blend) && (o2.material.<BlendingAttribute>get(BlendingAttribute.blend)).blended;
-        if(b1 != b2) return b1 ? 1 : -1;
-        getTranslation(o1.worldTransform, o1.meshPart.center, tmpV1);
-        getTranslation(o2.worldTransform, o2.meshPart.center, tmpV2);
-        float dst = (int)(1000f * camera.position.dst2(tmpV1)) - (int)(1000f * camera.position.dst2(tmpV2));
-        int result = dst < 0 ? -1 : (dst > 0 ? 1 : 0);
-        return b1 ? -result : result;
-    }
 }
@@ -1,5 +1,6 @@
 package unity.content;
 
+import arc.func.*;
 import arc.graphics.*;
 import mindustry.content.*;
 import mindustry.ctype.*;
@@ -22,7 +23,7 @@ public class UnityPlanets{
     public static void load(){
         megalith = new Planet("megalith", Planets.sun, 1f, 3){{
             generator = new MegalithPlanetGenerator();
-            meshLoader = () -> new CompositeMesh(this,
+            meshLoader = () -> sampled(this, 6, () -> new CompositeMesh(this,
                 // Planet.
                 CompositeMesh.defMesh(this, 6),
                 CompositeMesh.defShader(this),
@@ -32,7 +33,7 @@ public class UnityPlanets{
                 GraphicUtils.copy(UnityModels.megalithring.meshes.first()),
                 new ShaderRef<>(UnityShaders.megalithRingShader, UnityShaders.megalithRingShader.cons(this)),
                 Blending.additive
-            );
+            ));
 
             accessible = true;
             atmosphereColor = UnityPal.monolithAtmosphere;
@@ -43,7 +44,7 @@ public class UnityPlanets{
 
         electrode = new Planet("electrode", Planets.sun, 1f, 3){{
             generator = new ElectrodePlanetGenerator();
-            meshLoader = () -> new HexMesh(this, 6);
+            meshLoader = () -> sampled(this, 6, () -> new HexMesh(this, 6));
             accessible = true;
             atmosphereColor = Pal.surge;
             startSector = 30;
@@ -63,4 +64,24 @@ public class UnityPlanets{
             );
         }};
     }
+
+    /**
+     * Builds a planet mesh with the given subdivisions, sampling the planet generator at every vertex beforehand if it
+     * supports it. The samples are released once the mesh is built, as sector generation never hits them.
+     */
+    static <T extends PlanetMesh> T sampled(Planet planet, int divisions, Prov<T> mesh){
+        PlanetSamples samples =
+            planet.generator instanceof MegalithPlanetGenerator m ? m.samples :
+            planet.generator instanceof ElectrodePlanetGenerator e ? e.samples :
+            null;
+
+        if(samples == null) return mesh.get();
+
+        samples.prefill(divisions);
+        try{
+            return mesh.get();
+        }finally{
+            samples.clear();
+        }
+    }
 }
@@ -0,0 +1,395 @@
+package unity.entities;
+
+import arc.*;
+import arc.graphics.*;
+import arc.graphics.g2d.*;
+import arc.math.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import arc.util.*;
+import mindustry.core.*;
+import mindustry.game.*;
+import mindustry.game.EventType.*;
+import mindustry.gen.*;
+import mindustry.graphics.*;
+import mindustry.world.*;
+import mindustry.world.blocks.distribution.*;
+import mindustry.world.blocks.distribution.Conveyor.*;
+import mindustry.world.blocks.production.*;
+import mindustry.world.blocks.production.Incinerator.*;
+import unity.content.*;
+import unity.mod.*;
+import unity.world.blocks.exp.*;
+
+import java.util.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Lightweight exp orb simulation. Orbs are stored in pooled struct-of-arrays buffers rather than being bullet entities, are
+ * bucketed into a uniform grid to merge nearby orbs and to drift towards exp-accepting buildings, and are updated and drawn
+ * in bulk. Only the server (or a local game) hands exp to buildings; clients simulate orbs purely visually.
+ * @author GlennFolker
+ * @author sunny
+ */
+public class ExpOrbSystem{
+    /** Maximum amount of orbs alive at once. Orbs spawned past this limit merge into existing ones. */
+    public static final int maxOrbs = 4096;
+    /** Size of a grid cell, in tiles. */
+    public static final int cellSize = 3;
+
+    public static final float
+        drag = 0.05f, lifetime = 180f,
+        mergeRange = 6f, attractRange = 2.5f * 8f, attractForce = 0.04f,
+        retargetInterval = 10f;
+
+    private static final Color expColor = Color.valueOf("84ff00");
+    private static final int[] d4x = new int[]{1, 0, -1, 0};
+    private static final int[] d4y = new int[]{0, 1, 0, -1};
+
+    /** Orb buffers; only indices below {@link #size} are alive. */
+    public float[] x = new float[64], y = new float[64], vx = new float[64], vy = new float[64], time = new float[64];
+    /** Exp held by each orb, always a multiple of {@link ExpOrbs#expAmount}. */
+    public int[] exp = new int[64];
+    /** Per-orb seed used for drawing variation. */
+    public int[] seed = new int[64];
+    public int size;
+
+    private int nextSeed;
+    private float retargetTimer;
+
+    private int gridWidth, gridHeight;
+    /** First orb index of each grid cell, or {@code -1} if the cell is not in {@link #occupied}. */
+    private int[] cellHead = {};
+    /** Next orb index in the same grid cell, or {@code -1}. */
+    private int[] cellNext = new int[64];
+    /** Cached exp-accepting building that orbs in each cell drift towards. */
+    private Building[] cellTargets = {};
+    private final IntSeq occupied = new IntSeq();
+
+    public ExpOrbSystem(){
+        Events.on(WorldLoadEvent.class, e -> reload());
+        Events.on(ResetEvent.class, e -> clear());
+
+        Triggers.listen(Trigger.update, this::update);
+        if(!headless) Triggers.listen(Trigger.draw, this::draw);
+    }
+
+    public void reload(){
+        clear();
+
+        gridWidth = (world.width() + cellSize - 1) / cellSize;
+        gridHeight = (world.height() + cellSize - 1) / cellSize;
+
+        cellHead = new int[gridWidth * gridHeight];
+        Arrays.fill(cellHead, -1);
+        cellTargets = new Building[gridWidth * gridHeight];
+        occupied.clear();
+    }
+
+    public void clear(){
+        size = 0;
+        retargetTimer = 0f;
+
+        for(int i = 0; i < occupied.size; i++){
+            int cell = occupied.items[i];
+            cellHead[cell] = -1;
+            cellTargets[cell] = null;
+        }
+        occupied.clear();
+    }
+
+    /**
+     * Spawns an orb holding the given amount of exp. If the orb limit is reached, the exp is merged into an existing orb instead.
+     * @param speed The initial speed, in world units per tick.
+     */
+    public void spawn(float x, float y, float rotation, float speed, int amount){
+        if(amount <= 0 || cellHead.length == 0) return;
+
+        if(size >= maxOrbs){
+            exp[nearest(x, y)] += amount;
+            return;
+        }
+
+        ensureCapacity(size + 1);
+
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        vx[i] = Angles.trnsx(rotation, speed);
+        vy[i] = Angles.trnsy(rotation, speed);
+        time[i] = 0f;
+        exp[i] = amount;
+        seed[i] = nextSeed++;
+    }
+
+    /**
+     * @return The orb nearest to the given position, searching its grid cell first and only falling back to every orb if the
+     * cell is empty. Requires at least one alive orb.
+     */
+    protected int nearest(float x, float y){
+        int cell = cell(x, y), nearest = -1;
+        float best = Float.MAX_VALUE;
+
+        // Orbs removed since the last grid rebuild may leave stale indices in the chain. Those below the size still name live
+        // orbs, and distances use their current positions, so the result is always a real orb.
+        if(cell != -1){
+            for(int i = cellHead[cell]; i != -1; i = cellNext[i]){
+                if(i >= size) continue;
+
+                float dst = Mathf.dst2(this.x[i], this.y[i], x, y);
+                if(dst < best){
+                    best = dst;
+                    nearest = i;
+                }
+            }
+        }
+
+        if(nearest == -1){
+            for(int i = 0; i < size; i++){
+                float dst = Mathf.dst2(this.x[i], this.y[i], x, y);
+                if(dst < best){
+                    best = dst;
+                    nearest = i;
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Pushes all orbs within a radius towards a direction, weaker the further they are.
+     * @param force The force applied at the center, divided by {@code 8 + distance}.
+     */
+    public void push(float x, float y, float radius, float force, float dirX, float dirY){
+        float r2 = radius * radius;
+        for(int i = 0; i < size; i++){
+            float dx = this.x[i] - x, dy = this.y[i] - y, dst2 = dx * dx + dy * dy;
+            if(dst2 < r2){
+                float mul = force / (8f + Mathf.sqrt(dst2));
+                vx[i] += mul * dirX;
+                vy[i] += mul * dirY;
+            }
+        }
+    }
+
+    /** @return The total exp held by all orbs. */
+    public int totalExp(){
+        int total = 0;
+        for(int i = 0; i < size; i++) total += exp[i];
+        return total;
+    }
+
+    public void update(){
+        if(!state.isGame() || state.isPaused() || size == 0) return;
+
+        rebuildGrid();
+        if((retargetTimer += Time.delta) >= retargetInterval){
+            retargetTimer %= retargetInterval;
+            retarget();
+        }
+
+        boolean auth = net.server() || !net.active();
+        float damp = Math.max(1f - drag * Time.delta, 0f);
+
+        for(int i = 0; i < size;){
+            int cell = cell(x[i], y[i]);
+            if(cell == -1){
+                remove(i);
+                continue;
+            }
+
+            Building target = cellTargets[cell];
+            if(target != null){
+                float dx = target.x - x[i], dy = target.y - y[i], dst = Mathf.len(dx, dy);
+                if(dst > 0.001f && dst <= attractRange + target.hitSize() / 2f){
+                    float acc = attractForce * Time.delta / dst;
+                    vx[i] += dx * acc;
+                    vy[i] += dy * acc;
+                }
+            }
+
+            x[i] += vx[i] * Time.delta;
+            y[i] += vy[i] * Time.delta;
+            vx[i] *= damp;
+            vy[i] *= damp;
+
+            if(Mathf.len2(vx[i], vy[i]) >= 0.01f){
+                time[i] = 0f;
+            }else if((time[i] += Time.delta) >= lifetime){
+                UnityFx.orbDespawn.at(x[i], y[i]);
+                remove(i);
+                continue;
+            }
+
+            if(!interact(i, auth)){
+                remove(i);
+                continue;
+            }
+
+            i++;
+        }
+    }
+
+    /** @return Whether the orb should stay alive. */
+    protected boolean interact(int i, boolean auth){
+        Tile tile = world.tileWorld(x[i], y[i]);
+        if(tile == null) return false;
+        if(tile.build == null) return true;
+
+        if(tile.build instanceof ExpHolder holder){
+            while(exp[i] > 0 && holder.acceptOrb() && (!auth || holder.handleOrb(ExpOrbs.expAmount))){
+                exp[i] -= ExpOrbs.expAmount;
+            }
+
+            if(exp[i] <= 0) return false;
+        }
+
+        if(tile.block() instanceof Conveyor conv){
+            ConveyorBuild build = (ConveyorBuild)tile.build;
+            if(build.clogHeat > 0.5f || !build.enabled) return true;
+
+            if(conv.absorbLasers){ //this will be used as a flag for exp conveyors
+                float speed = conv.speed * 2f;
+                vx[i] = vx[i] * 0.7f + d4x[build.rotation] * speed * build.delta();
+                vy[i] = vy[i] * 0.7f + d4y[build.rotation] * speed * build.delta();
+            }else{
+                float speed = conv.speed / 3f;
+                vx[i] += d4x[build.rotation] * speed * build.delta();
+                vy[i] += d4y[build.rotation] * speed * build.delta();
+            }
+        }else if(tile.block() instanceof Incinerator && ((IncineratorBuild)tile.build).heat > 0.5f){
+            return false;
+        }else if(tile.solid()){
+            x[i] -= 1.1f * vx[i];
+            y[i] -= 1.1f * vy[i];
+            vx[i] = vy[i] = 0f;
+        }
+
+        return true;
+    }
+
+    /** Buckets all orbs into the grid, merging slow orbs into any close enough slow orb already in their cell. */
+    protected void rebuildGrid(){
+        for(int i = 0; i < occupied.size; i++) cellHead[occupied.items[i]] = -1;
+        occupied.clear();
+
+        for(int i = 0; i < size;){
+            int cell = cell(x[i], y[i]);
+            if(cell == -1){
+                i++;
+                continue;
+            }
+
+            if(cellHead[cell] == -1){
+                occupied.add(cell);
+            }else if(Mathf.len2(vx[i], vy[i]) < 0.01f){
+                int into = -1;
+                for(int j = cellHead[cell]; j != -1; j = cellNext[j]){
+                    if(Mathf.within(x[i], y[i], x[j], y[j], mergeRange) && Mathf.len2(vx[j], vy[j]) < 0.01f){
+                        into = j;
+                        break;
+                    }
+                }
+
+                if(into != -1){
+                    exp[into] += exp[i];
+                    time[into] = Math.min(time[into], time[i]);
+
+                    // The last orb takes this index and hasn't been bucketed yet, so process this index again. Bucketed
+                    // orbs all have lower indices, so the chains stay intact.
+                    remove(i);
+                    continue;
+                }
+            }
+
+            cellNext[i] = cellHead[cell];
+            cellHead[cell] = i;
+            i++;
+        }
+    }
+
+    /** Finds an exp-accepting building around every occupied cell. */
+    protected void retarget(){
+        for(int i = 0; i < occupied.size; i++){
+            int cell = occupied.items[i];
+            int cx = (cell % gridWidth) * cellSize, cy = (cell / gridWidth) * cellSize;
+
+            Building target = cellTargets[cell];
+            if(target != null && (!target.isValid() || !(target instanceof ExpHolder holder) || !holder.acceptOrb())) target = null;
+
+            for(int ty = cy - 1, ey = cy + cellSize; target == null && ty <= ey; ty++){
+                for(int tx = cx - 1, ex = cx + cellSize; tx <= ex; tx++){
+                    Building build = world.build(tx, ty);
+                    if(build instanceof ExpHolder holder && holder.acceptOrb()){
+                        target = build;
+                        break;
+                    }
+                }
+            }
+
+            cellTargets[cell] = target;
+        }
+    }
+
+    public void draw(){
+        if(size == 0) return;
+
+        Rect view = Core.camera.bounds(Tmp.r1).grow(16f);
+        Draw.z(Layer.bullet - 0.01f);
+
+        for(int i = 0; i < size; i++){
+            float ox = x[i], oy = y[i];
+            if(!view.contains(ox, oy) || (time[i] > lifetime * 0.5f && Time.time % 14f < 7f)) continue;
+
+            int s = seed[i];
+            float scl = Math.min(1f + (exp[i] / ExpOrbs.expAmount - 1) * 0.1f, 2f);
+
+            Draw.color(expColor, Color.white, 0.1f + 0.1f * Mathf.sin(Time.time * 0.03f + s * 2f));
+            Fill.circle(ox, oy, 1.5f * scl);
+            for(int j = 0; j < 4; j++){
+                Drawf.tri(ox, oy, 4f * scl, (4f + 1.5f * Mathf.sin(Time.time * 0.12f + s * 3f)) * scl, j * 90 + Mathf.sin(Time.time * 0.04f + s * 5f) * 28f);
+            }
+
+            Drawf.light(Team.derelict, ox, oy, 18f * scl, expColor, 0.3f);
+        }
+
+        Draw.color();
+    }
+
+    /** @return The grid cell index at the given world position, or {@code -1} if out of bounds. */
+    protected int cell(float x, float y){
+        int tx = World.toTile(x), ty = World.toTile(y);
+        if(tx < 0 || ty < 0 || tx >= world.width() || ty >= world.height()) return -1;
+
+        return tx / cellSize + ty / cellSize * gridWidth;
+    }
+
+    protected void remove(int i){
+        int last = --size;
+        if(i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        time[i] = time[last];
+        exp[i] = exp[last];
+        seed[i] = seed[last];
+    }
+
+    protected void ensureCapacity(int capacity){
+        if(capacity <= x.length) return;
+
+        int len = Math.min(Math.max(x.length * 2, capacity), maxOrbs);
+        x = Arrays.copyOf(x, len);
+        y = Arrays.copyOf(y, len);
+        vx = Arrays.copyOf(vx, len);
+        vy = Arrays.copyOf(vy, len);
+        time = Arrays.copyOf(time, len);
+        exp = Arrays.copyOf(exp, len);
+        seed = Arrays.copyOf(seed, len);
+        cellNext = Arrays.copyOf(cellNext, len);
+    }
+}
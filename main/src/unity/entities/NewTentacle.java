@@ -1,5 +1,6 @@
 package unity.entities;
 
+import arc.func.*;
 import arc.graphics.g2d.*;
 import arc.math.*;
 import arc.math.geom.*;
@@ -21,6 +22,20 @@ public class NewTentacle{
     float targetX, targetY, swayScl,
     attackTime, stabTime, alx, aly, retarget, reload;
 
+    final Boolf<Unit> unitTarget = u -> u.isValid() && unitPosition().within(u, rootRange());
+    final Boolf<Building> buildingTarget = b -> unitPosition().within(b, rootRange());
+    final Boolf3<Building, Float, Boolean> stabBuilding = (building, ratio, direct) -> {
+        if(direct){
+            building.damage(type.tentacleDamage * ratio);
+        }
+        return false;
+    };
+    final Boolf2<Unit, Float> stabUnit = (unit, ratio) -> {
+        unit.damage(type.tentacleDamage * ratio);
+        return false;
+    };
+    static final Floatc2 hitEffect = Fx.hitBulletSmall::at;
+
     public NewTentacle(TentacleType t, Unit unit){
         type = t;
         this.unit = unit;
@@ -124,7 +139,7 @@ public class NewTentacle{
         boolean player = unit.isPlayer();
         if(type.automatic || !player){
             if(target == null && (retarget += Time.delta) >= 20f){
-                target = Units.closestTarget(unit.team, end.x, end.y, type.range, u -> u.isValid() && unitPosition().within(u, rootRange()), b -> unitPosition().within(b, rootRange()));
+                target = Units.closestTarget(unit.team, end.x, end.y, type.range, unitTarget, buildingTarget);
                 retarget = 0f;
             }
             if(target != null){
@@ -163,15 +178,7 @@ public class NewTentacle{
         if(bullet == null && attacking && end.len() > 0.2f){
             if(stab){
                 if((stabTime += Time.delta) >= 5f){
-                    Utils.collideLineRawEnemyRatio(unit.team, alx, aly, end.x, end.y, 3f, (building, ratio, direct) -> {
-                        if(direct){
-                            building.damage(type.tentacleDamage * ratio);
-                        }
-                        return false;
-                    }, (unit, ratio) -> {
-                        unit.damage(type.tentacleDamage * ratio);
-                        return false;
-                    }, Fx.hitBulletSmall::at);
+                    Utils.collideLineRawEnemyRatio(unit.team, alx, aly, end.x, end.y, 3f, stabBuilding, stabUnit, hitEffect);
 
                     alx = end.x;
                     aly = end.y;
@@ -1,5 +1,6 @@
 package unity.entities;
 
+import arc.func.*;
 import arc.graphics.g2d.*;
 import arc.math.*;
 import arc.math.geom.*;
@@ -21,10 +22,21 @@ public class Tentacle{
     float swayScl = 1f;
     float reloadTime = 0f;
     float chargingTime = 0f, chargingTimeB = 0f, chargingTimeC = 0f;
-    float lastTipX, lastTipY;
+    float lastTipX, lastTipY, hitDamage;
     Bullet bullet;
     boolean attacking = false;
 
+    final Boolf2<Building, Boolean> hitBuilding = (building, direct) -> {
+        if(direct){
+            building.damage(hitDamage);
+        }
+        return false;
+    };
+    final Cons<Unit> hitUnit = u -> u.damage(hitDamage);
+    final Boolf<Unit> unitTarget = u -> parentPosition(-1).within(u, type.range()) && u.isValid();
+    final Boolf<Building> buildingTarget = b -> parentPosition(-1).within(b, type.range());
+    static final Floatc2 hitEffect = Fx.hitBulletSmall::at;
+
     public void updateMovement(){
         if(!attacking && chargingTime <= 0f){
             swayScl = Mathf.lerpDelta(swayScl, 1f, 0.04f);
@@ -95,14 +107,9 @@ public class Tentacle{
     void updateWeapon(){
         if(type.tentacleDamage > 0 && timer.get(1, 5f)){
             if((endVelocity.len() - type.startVelocity) > 0.0001f && type.speed > 0){
-                float damage = type.tentacleDamage * Interp.pow2In.apply(Mathf.clamp(((endVelocity.len() - type.startVelocity) * (1f + (type.startVelocity / type.speed))) / type.speed));
-                if(damage > 0){
-                    Utils.collideLineRawEnemy(unit.team, last().getX(), last().getY(), lastTipX, lastTipY, (building, aBoolean) -> {
-                        if(aBoolean){
-                            building.damage(damage);
-                        }
-                        return false;
-                    }, unit1 -> unit1.damage(damage), null, Fx.hitBulletSmall::at);
+                hitDamage = type.tentacleDamage * Interp.pow2In.apply(Mathf.clamp(((endVelocity.len() - type.startVelocity) * (1f + (type.startVelocity / type.speed))) / type.speed));
+                if(hitDamage > 0){
+                    Utils.collideLineRawEnemy(unit.team, last().getX(), last().getY(), lastTipX, lastTipY, hitBuilding, hitUnit, null, hitEffect);
                 }
             }
             lastTipX = last().getX();
@@ -130,9 +137,7 @@ public class Tentacle{
         TentacleSegment segment = segments[segments.length - 1];
         if(Units.invalidateTarget(target, unit.team, origin.getX(), origin.getY(), type.range())) target = null;
         if(timer.get(20f) && (!unit.isPlayer() || type.automatic)){
-            target = Units.closestTarget(unit.team, segment.getX(), segment.getY(), type.range,
-            unit -> origin.within(unit, type.range()) && unit.isValid(),
-            building -> origin.within(building, type.range()));
+            target = Units.closestTarget(unit.team, segment.getX(), segment.getY(), type.range, unitTarget, buildingTarget);
         }
         if(!unit.isPlayer() || type.automatic){
             if(target != null && (type.bullet != null || unit.isShooting())){
@@ -0,0 +1,130 @@
+package unity.entities;
+
+import arc.math.*;
+import arc.util.*;
+import mindustry.gen.*;
+import unity.gen.*;
+import unity.type.*;
+import unity.util.*;
+
+/**
+ * Packed state of a component worm's segment chain. The chain is gathered from the head once per tick, solved entirely on
+ * primitive arrays, and written back to the segment entities for rendering and syncing. Index 0 is always the head.
+ */
+public class WormChain{
+    public Unit[] units = new Unit[8];
+    public float[] x = new float[8], y = new float[8], rotation = new float[8];
+    public float[] lastX = new float[8], lastY = new float[8], deltaX = new float[8], deltaY = new float[8];
+    public int size;
+
+    /** Walks the chain starting from the given head once, copying every segment's state into the arrays. */
+    public void gather(Unit head){
+        size = 0;
+        Unit u = head;
+        while(u != null){
+            ensureCapacity(size + 1);
+
+            units[size] = u;
+            x[size] = u.x;
+            y[size] = u.y;
+            rotation[size] = u.rotation;
+            lastX[size] = u.lastX;
+            lastY[size] = u.lastY;
+            deltaX[size] = u.deltaX;
+            deltaY[size] = u.deltaY;
+            size++;
+
+            u = u instanceof Wormc w ? w.child() : null;
+        }
+    }
+
+    /**
+     * Makes every segment follow the joint of its parent. The first iteration is the regular worm movement step; any further
+     * iteration only pulls segments towards their parent's joint, tightening long chains.
+     */
+    public void solve(UnityUnitType type){
+        float strength = Mathf.clamp(type.jointStrength * Time.delta), half = type.segmentOffset / 2f;
+        int cast = type.segmentCast;
+
+        for(int i = 1; i < size; i++){
+            int p = i - 1;
+            float jointLen = half + (p == 0 ? type.headOffset : 0f);
+            float jx = x[p] + Angles.trnsx(rotation[p] + 180f, jointLen), jy = y[p] + Angles.trnsy(rotation[p] + 180f, jointLen);
+
+            float rdx = deltaX[i] - deltaX[p], rdy = deltaY[i] - deltaY[p];
+            float parentLen = Mathf.len(deltaX[p], deltaY[p]);
+
+            float angTo = !type.preventDrifting || (parentLen > 0.001f && (rdx * rdx) + (rdy * rdy) > 0.00001f) ? Angles.angle(x[i], y[i], jx, jy) : rotation[i];
+            float rot = rotation[i] = angTo - (Utils.angleDistSigned(angTo, rotation[p], type.angleLimit) * (1f - type.anglePhysicsSmooth));
+
+            x[i] += Angles.trnsx(rot, parentLen);
+            y[i] += Angles.trnsy(rot, parentLen);
+
+            float cx = (x[i] + Angles.trnsx(rot, half) - jx) * strength, cy = (y[i] + Angles.trnsy(rot, half) - jy) * strength;
+            for(int n = i, c = cast; c > 0 && n < size; n++, c--){
+                float scl = c / (float)cast;
+                x[n] -= cx * scl;
+                y[n] -= cy * scl;
+
+                deltaX[n] = x[n] - lastX[n];
+                deltaY[n] = y[n] - lastY[n];
+                lastX[n] = x[n];
+                lastY[n] = y[n];
+            }
+        }
+
+        for(int it = 1; it < type.segmentIterations; it++){
+            for(int i = 1; i < size; i++){
+                int p = i - 1;
+                float jointLen = half + (p == 0 ? type.headOffset : 0f);
+                float jx = x[p] + Angles.trnsx(rotation[p] + 180f, jointLen), jy = y[p] + Angles.trnsy(rotation[p] + 180f, jointLen);
+
+                x[i] -= (x[i] + Angles.trnsx(rotation[i], half) - jx) * strength;
+                y[i] -= (y[i] + Angles.trnsy(rotation[i], half) - jy) * strength;
+            }
+        }
+    }
+
+    /** Writes the solved state back to every segment except the head, which is never moved by the solver. */
+    public void scatter(){
+        for(int i = 1; i < size; i++){
+            Unit u = units[i];
+            u.x = x[i];
+            u.y = y[i];
+            u.rotation = rotation[i];
+            u.lastX = lastX[i];
+            u.lastY = lastY[i];
+            u.deltaX = deltaX[i];
+            u.deltaY = deltaY[i];
+        }
+    }
+
+    /** Drops unit references, so removed worms aren't kept alive. */
+    public void clear(){
+        for(int i = 0; i < size; i++) units[i] = null;
+        size = 0;
+    }
+
+    protected void ensureCapacity(int cap){
+        if(cap <= units.length) return;
+
+        int len = Math.max(cap, units.length * 2);
+        Unit[] nunits = new Unit[len];
+        System.arraycopy(units, 0, nunits, 0, size);
+        units = nunits;
+
+        x = grow(x, len);
+        y = grow(y, len);
+        rotation = grow(rotation, len);
+        lastX = grow(lastX, len);
+        lastY = grow(lastY, len);
+        deltaX = grow(deltaX, len);
+        deltaY = grow(deltaY, len);
+    }
+
+    float[] grow(float[] arr, int len){
+        float[] out = new float[len];
+        System.arraycopy(arr, 0, out, 0, size);
+        return out;
+    }
+}
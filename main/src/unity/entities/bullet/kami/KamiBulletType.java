@@ -46,14 +46,12 @@ public class KamiBulletType extends BulletType{
             Draw.rect(region, b.x, b.y, kb.width * 2f, kb.length * 2f, b.rotation());
         }else{
             Draw.blend(Blending.additive);
-            FloatSeq seq = kb.lastPositions;
             float time = Time.time / 2f;
             float fout = 1f - Mathf.clamp(b.time - (b.lifetime - 40f)) / 40f;
-            int max = (seq.size / 2) - 1;
-            for(int i = 0; i < seq.size - 2; i += 2){
-                int s = i / 2;
+            int points = kb.historySize(), max = points - 1;
+            for(int s = 0; s < points - 1; s++){
                 float fin = (s + 1f) / max;
-                float x1 = seq.get(i), y1 = seq.get(i + 1), x2 = seq.get(i + 2), y2 = seq.get(i + 3);
+                float x1 = kb.historyX(s), y1 = kb.historyY(s), x2 = kb.historyX(s + 1), y2 = kb.historyY(s + 1);
                 Tmp.c1.set(Color.red).shiftHue(time).a(fin);
                 Draw.color(Tmp.c1);
                 Lines.stroke(3f);
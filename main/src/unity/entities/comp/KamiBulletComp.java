@@ -19,7 +19,9 @@ abstract class KamiBulletComp implements Bulletc{
     private static float lastDelta;
     float turn, width, length, resetTime, lastTime, fdata2;
     int telegraph;
-    FloatSeq lastPositions;
+    /** Telegraph path as a ring buffer of x/y pairs, so recording a position never shifts the array. */
+    float[] history;
+    int historyStart, historySize;
     KamiBulletData bdata;
 
     @Import IntSeq collided;
@@ -48,13 +50,18 @@ abstract class KamiBulletComp implements Bulletc{
 
     @Override
     public void update(){
-        if(lastPositions != null){
-            lastPositions.add(x, y);
-            if(lastPositions.size > telegraph * 4){
-                lastPositions.removeRange(0, 1);
+        if(history != null){
+            int cap = history.length / 2, idx = (historyStart + historySize) % cap;
+            if(historySize < cap){
+                historySize++;
+            }else{
+                historyStart = (historyStart + 1) % cap;
             }
+
+            history[idx * 2] = x;
+            history[idx * 2 + 1] = y;
         }
-        if(telegraph > 0 && lastPositions == null){
+        if(telegraph > 0 && history == null){
             KamiBullet b = KamiBullet.create();
             b.x = x;
             b.y = y;
@@ -71,7 +78,8 @@ abstract class KamiBulletComp implements Bulletc{
             b.width = width;
             b.length = length;
             b.hitSize = hitSize();
-            b.lastPositions = new FloatSeq();
+            b.history = new float[telegraph * 4];
+            b.historyStart = b.historySize = 0;
             b.telegraph = telegraph;
             b.add();
             telegraph = -1;
@@ -95,7 +103,17 @@ abstract class KamiBulletComp implements Bulletc{
     }
 
     boolean isTelegraph(){
-        return lastPositions != null;
+        return history != null;
+    }
+
+    /** @return The x coordinate of the {@code index}-th recorded position, oldest first. */
+    float historyX(int index){
+        return history[((historyStart + index) % (history.length / 2)) * 2];
+    }
+
+    /** @return The y coordinate of the {@code index}-th recorded position, oldest first. */
+    float historyY(int index){
+        return history[((historyStart + index) % (history.length / 2)) * 2 + 1];
     }
 
     /*
@@ -122,7 +140,7 @@ abstract class KamiBulletComp implements Bulletc{
     @Replace(2)
     @Override
     public boolean collides(Hitboxc other){
-        boolean base = lastPositions == null && type.collides && (other instanceof Teamc && ((Teamc)other).team() != team)
+        boolean base = history == null && type.collides && (other instanceof Teamc && ((Teamc)other).team() != team)
         && !(other instanceof Flyingc && !((Flyingc)other).checkTarget(type.collidesAir, type.collidesGround))
         && !(type.pierce && hasCollided(other.id()));
 
@@ -12,14 +12,26 @@ import mindustry.game.*;
 import mindustry.gen.*;
 import mindustry.type.*;
 import unity.annotations.Annotations.*;
+import unity.entities.*;
 import unity.gen.*;
 import unity.type.*;
 import unity.util.*;
 
+import static mindustry.Vars.*;
+
 @SuppressWarnings({"unused", "UnnecessaryReturnStatement"})
 @EntityComponent
 abstract class WormComp implements Unitc{
-    private static Unit last;
+    private static final WormChain chain = new WormChain();
+    /**
+     * Segment count markers of the compact chain formats; the legacy format never writes negative counts. The first compact
+     * format didn't store segment status effects, shields, velocities or weapon mounts, and is only read.
+     */
+    private static final short chainFormat = -2, chainFormatNoState = -1;
+    /** Segment offsets are stored in 1/8 world units, rotations in 1/182 degrees. */
+    private static final float positionScale = 8f, rotationScale = 182f;
+    /** Written in place of an offset that doesn't fit in a short, followed by the absolute position as floats. */
+    private static final short absolutePosition = Short.MIN_VALUE;
     transient Unit head, parent, child;
     transient float layer = 0f, scanTime = 0f;
     transient byte weaponIdx = 0;
@@ -32,7 +44,7 @@ abstract class WormComp implements Unitc{
     @SyncLocal public int childId = -1, headId = -1;
 
     @Import UnitType type;
-    @Import float healthMultiplier, health, x, y, minFormationSpeed, elevation, rotation;
+    @Import float healthMultiplier, health, x, y, minFormationSpeed, elevation, rotation, ammo;
     @Import boolean dead;
     @Import WeaponMount[] mounts;
     @Import Team team;
@@ -124,6 +136,11 @@ abstract class WormComp implements Unitc{
         if(read.bool()){
             saveAdd = true;
             int seg = read.s();
+            if(seg == chainFormat || seg == chainFormatNoState){
+                readChain(read, seg == chainFormat);
+                return;
+            }
+
             Wormc current = self();
             for(int i = 0; i < seg; i++){
                 Unit u = type.constructor.get();
@@ -139,6 +156,76 @@ abstract class WormComp implements Unitc{
         }
     }
 
+    /**
+     * Reads segments written by {@link #write(Writes)}. Anything segments share with the head is copied from it instead of being
+     * read, and every segment is allocated and linked in one pass.
+     * @param full Whether per-segment status effects, shields, velocities and weapon mounts were written.
+     */
+    private void readChain(Reads read, boolean full){
+        int seg = read.s();
+        float px = 0f, py = 0f;
+
+        Unit current = self();
+        for(int i = 0; i < seg; i++){
+            if(i == 0){
+                px = read.f();
+                py = read.f();
+            }else{
+                short dx = read.s();
+                if(full && dx == absolutePosition){
+                    px = read.f();
+                    py = read.f();
+                }else{
+                    px += dx / positionScale;
+                    py += read.s() / positionScale;
+                }
+            }
+
+            Unit u = type.constructor.get();
+            Wormc w = (Wormc)u;
+            ((Wormc)current).child(u);
+            w.parent(current);
+            w.head(self());
+            w.layer(i);
+            w.weaponIdx(read.b());
+
+            u.team = team;
+            u.setType(type);
+            u.elevation = elevation;
+            u.ammo = ammo;
+            u.set(px, py);
+            u.lastX = px;
+            u.lastY = py;
+            u.rotation = (read.s() & 0xffff) / rotationScale;
+            u.health = read.f();
+            w.splitHealthDiv(read.f());
+
+            if(full){
+                u.shield = read.f();
+                u.vel.set(read.f(), read.f());
+
+                int statusCount = read.ub();
+                for(int j = 0; j < statusCount; j++){
+                    StatusEffect effect = content.statusEffect(read.s());
+                    float time = read.f();
+                    if(effect != null) u.apply(effect, time);
+                }
+
+                //mounts come from the segment's weapon index, so a count mismatch only happens if the unit type changed
+                int mountCount = read.ub();
+                for(int j = 0; j < mountCount; j++){
+                    float reload = read.f(), rotation = read.f();
+                    if(j < u.mounts.length){
+                        u.mounts[j].reload = reload;
+                        u.mounts[j].rotation = rotation;
+                    }
+                }
+            }
+
+            current = u;
+        }
+    }
+
     @MethodPriority(100)
     @Override
     public void write(Writes write){
@@ -150,17 +237,76 @@ abstract class WormComp implements Unitc{
                 amount++;
                 ch = (Wormc)ch.child();
             }
+            write.s(chainFormat);
             write.s(amount);
 
-            ch = (Wormc)child;
-            while(ch != null){
-                write.b(weaponIdx);
-                ch.write(write);
-                ch = (Wormc)ch.child();
+            //deltas are taken from the dequantised previous position, so rounding errors don't accumulate along the chain
+            float px = 0f, py = 0f;
+            Unit u = child;
+            for(int i = 0; u != null; i++){
+                if(i == 0){
+                    px = u.x;
+                    py = u.y;
+                    write.f(px);
+                    write.f(py);
+                }else{
+                    int dx = Mathf.round((u.x - px) * positionScale), dy = Mathf.round((u.y - py) * positionScale);
+                    if(fits(dx) && fits(dy)){
+                        px += dx / positionScale;
+                        py += dy / positionScale;
+                        write.s(dx);
+                        write.s(dy);
+                    }else{
+                        //a segment too far from its parent to be stored as an offset, e.g. one that was just teleported
+                        px = u.x;
+                        py = u.y;
+                        write.s(absolutePosition);
+                        write.f(px);
+                        write.f(py);
+                    }
+                }
+
+                Wormc w = (Wormc)u;
+                write.b(w.weaponIdx());
+                write.s((short)Mathf.round(Mathf.mod(u.rotation, 360f) * rotationScale));
+                write.f(u.health);
+                write.f(w.splitHealthDiv());
+
+                write.f(u.shield);
+                write.f(u.vel.x);
+                write.f(u.vel.y);
+
+                int statusCount = 0;
+                for(StatusEffect effect : content.statusEffects()){
+                    if(u.hasEffect(effect)) statusCount++;
+                }
+                statusCount = Math.min(statusCount, 255);
+                write.b(statusCount);
+                for(StatusEffect effect : content.statusEffects()){
+                    if(statusCount <= 0) break;
+                    if(!u.hasEffect(effect)) continue;
+
+                    write.s(effect.id);
+                    write.f(u.getDuration(effect));
+                    statusCount--;
+                }
+
+                write.b(u.mounts.length);
+                for(WeaponMount mount : u.mounts){
+                    write.f(mount.reload);
+                    write.f(mount.rotation);
+                }
+
+                u = w.child();
             }
         }
     }
 
+    /** @return Whether a quantised offset can be written as a short without colliding with {@link #absolutePosition}. */
+    private static boolean fits(int delta){
+        return delta > Short.MIN_VALUE && delta <= Short.MAX_VALUE;
+    }
+
     @Replace
     @Override
     public boolean isAI(){
@@ -299,44 +445,24 @@ abstract class WormComp implements Unitc{
     private void updatePost(){
         if(isHead()){
             UnityUnitType uType = (UnityUnitType)type;
-            last = self();
-            distributeActionBack(u -> {
-                if(u == self()) return;
-
-                float offset = self() == last ? uType.headOffset : 0f;
-                Tmp.v1.trns(last.rotation + 180f, (uType.segmentOffset / 2f) + offset).add(last);
-
-                float rdx = u.deltaX - last.deltaX;
-                float rdy = u.deltaY - last.deltaY;
-
-                float angTo = !uType.preventDrifting || (last.deltaLen() > 0.001f && (rdx * rdx) + (rdy * rdy) > 0.00001f) ? u.angleTo(Tmp.v1) : u.rotation;
-
-                u.rotation = angTo - (Utils.angleDistSigned(angTo, last.rotation, uType.angleLimit) * (1f - uType.anglePhysicsSmooth));
-                u.trns(Tmp.v3.trns(u.rotation, last.deltaLen()));
-                Tmp.v2.trns(u.rotation, uType.segmentOffset / 2f).add(u);
+            chain.gather(self());
+            chain.solve(uType);
+            chain.scatter();
 
-                Tmp.v2.sub(Tmp.v1).scl(Mathf.clamp(uType.jointStrength * Time.delta));
-
-                Unit n = u;
-                int cast = uType.segmentCast;
-                while(cast > 0 && n != null){
-                    float scl = cast / (float)uType.segmentCast;
-                    n.set(n.x - (Tmp.v2.x * scl), n.y - (Tmp.v2.y * scl));
-                    n.updateLastPosition();
-                    n = ((Wormc)n).child();
-                    cast--;
-                }
+            for(int i = 1; i < chain.size; i++){
+                Unit last = chain.units[i - 1], u = chain.units[i];
 
                 float nextHealth = (last.health() + u.health()) / 2f;
                 if(!Mathf.equal(nextHealth, last.health(), 0.0001f)) last.health(Mathf.lerpDelta(last.health(), nextHealth, uType.healthDistribution));
                 if(!Mathf.equal(nextHealth, u.health(), 0.0001f)) u.health(Mathf.lerpDelta(u.health(), nextHealth, uType.healthDistribution));
 
-                Wormc wrm = ((Wormc)last);
-                float nextHealthDv = (wrm.splitHealthDiv() + u.splitHealthDiv()) / 2f;
+                Wormc wrm = ((Wormc)last), wu = (Wormc)u;
+                float nextHealthDv = (wrm.splitHealthDiv() + wu.splitHealthDiv()) / 2f;
                 if(!Mathf.equal(nextHealth, wrm.splitHealthDiv(), 0.0001f)) wrm.splitHealthDiv(Mathf.lerpDelta(wrm.splitHealthDiv(), nextHealthDv, uType.healthDistribution));
-                if(!Mathf.equal(nextHealth, u.splitHealthDiv(), 0.0001f)) u.splitHealthDiv(Mathf.lerpDelta(u.splitHealthDiv(), nextHealthDv, uType.healthDistribution));
-                last = u;
-            });
+                if(!Mathf.equal(nextHealth, wu.splitHealthDiv(), 0.0001f)) wu.splitHealthDiv(Mathf.lerpDelta(wu.splitHealthDiv(), nextHealthDv, uType.healthDistribution));
+            }
+            chain.clear();
+
             scanTime += Time.delta;
             if(scanTime >= 5f && uType.chainable){
                 Tmp.v1.trns(rotation(), uType.segmentOffset / 2f).add(self());
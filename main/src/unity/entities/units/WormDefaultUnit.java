@@ -1,14 +1,17 @@
 package unity.entities.units;
 
+import arc.*;
 import arc.graphics.g2d.*;
 import arc.math.*;
 import arc.math.geom.*;
+import arc.struct.*;
 import arc.util.*;
 import arc.util.io.*;
 import mindustry.*;
 import mindustry.content.*;
 import mindustry.entities.*;
 import mindustry.entities.abilities.*;
+import mindustry.game.EventType.*;
 import mindustry.gen.*;
 import mindustry.type.*;
 import unity.annotations.Annotations.*;
@@ -21,7 +24,16 @@ import java.util.*;
 
 @EntityPoint
 public class WormDefaultUnit extends UnitEntity{
+    /** Every added worm head. Serves as a worm-only broad-phase, tested against {@link #bodyBounds} first. */
+    public static final Seq<WormDefaultUnit> worms = new Seq<>(false, 16, WormDefaultUnit.class);
+
+    static{
+        Events.on(ResetEvent.class, e -> worms.clear());
+    }
+
     public UnityUnitType wormType;
+    /** Bounding box of the head and all segments, updated every tick. */
+    public final Rect bodyBounds = new Rect();
     public WormSegmentUnit[] segmentUnits;
     public float repairTime = 0f;
     protected float attachTime = 4f * 60f;
@@ -162,6 +174,8 @@ public class WormDefaultUnit extends UnitEntity{
             segU.wormSegmentUpdate();
             if(wormType.healthDistribution > 0) distributeHealth(i);
         }
+
+        updateBounds();
         /*for(int i = 0; i < segmentUnits.length; i++){
             Vec2 seg = segments[i];
             Vec2 segV = segmentVelocities[i];
@@ -176,6 +190,20 @@ public class WormDefaultUnit extends UnitEntity{
         }*/
     }
 
+    protected void updateBounds(){
+        float minX = x, minY = y, maxX = x, maxY = y;
+        for(int i = 0, len = segmentUnits.length; i < len; i++){
+            Vec2 seg = segments[i];
+            minX = Math.min(minX, seg.x);
+            minY = Math.min(minY, seg.y);
+            maxX = Math.max(maxX, seg.x);
+            maxY = Math.max(maxY, seg.y);
+        }
+
+        float r = hitSize / 2f;
+        bodyBounds.set(minX - r, minY - r, maxX - minX + r * 2f, maxY - minY + r * 2f);
+    }
+
     protected void distributeHealth(int index){
         int idx = 0;
         float mHealth = 0f;
@@ -270,6 +298,7 @@ public class WormDefaultUnit extends UnitEntity{
     public void remove(){
         if(!added) return;
         super.remove();
+        worms.remove(this, true);
         for(WormSegmentUnit segmentUnit : segmentUnits){
             segmentUnit.remove();
         }
@@ -277,6 +306,7 @@ public class WormDefaultUnit extends UnitEntity{
 
     protected void superRemove(){
         super.remove();
+        worms.remove(this, true);
     }
 
     @Override
@@ -288,10 +318,13 @@ public class WormDefaultUnit extends UnitEntity{
         Tmp.v1.trns(rotation, wormType.segmentOffset).add(this);
         float size = wormType.hitSize / 2f;
         found = false;
-        Units.nearby(team, Tmp.v1.x - size, Tmp.v1.y - size, size * 2f, size * 2f, e -> {
-            if(found) return;
-            if(e instanceof WormSegmentUnit ws && ws.segmentType == 1 && ws.wormType == wormType && ws.trueParentUnit != this && within(ws, (wormType.segmentOffset) + 5f) && Angles.within(angleTo(e), e.rotation, wormType.angleLimit + 2f)){
-                if(ws.trueParentUnit == null || ws.trueParentUnit.segmentUnits.length > wormType.maxSegments) return;
+        for(int w = 0; w < worms.size && !found; w++){
+            WormDefaultUnit other = worms.items[w];
+            if(other == this || other.team != team || other.wormType != wormType || other.segmentUnits.length == 0 || !other.bodyBounds.overlaps(Tmp.v1.x - size, Tmp.v1.y - size, size * 2f, size * 2f)) continue;
+
+            WormSegmentUnit ws = other.segmentUnits[other.segmentUnits.length - 1];
+            if(ws.segmentType == 1 && ws.trueParentUnit == other && within(ws, (wormType.segmentOffset) + 5f) && Angles.within(angleTo(ws), ws.rotation, wormType.angleLimit + 2f)){
+                if(other.segmentUnits.length > wormType.maxSegments) continue;
                 wormType.chainSound.at(this, Mathf.random(0.9f, 1.1f));
                 WormSegmentUnit head = newSegment();
                 head.setType(wormType);
@@ -317,7 +350,7 @@ public class WormDefaultUnit extends UnitEntity{
                 }
                 found = true;
             }
-        });
+        }
     }
 
     protected void removeTail(){
@@ -382,6 +415,7 @@ public class WormDefaultUnit extends UnitEntity{
     public void add(){
         if(added) return;
         super.add();
+        worms.add(this);
         if(!addSegments){
             postAdd();
             return;
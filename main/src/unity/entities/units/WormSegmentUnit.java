@@ -43,12 +43,8 @@ public class WormSegmentUnit extends UnitEntity{
 
     @Override
     public boolean collides(Hitboxc other){
-        if(trueParentUnit == null) return true;
-        WormSegmentUnit[] segs = trueParentUnit.segmentUnits;
-        for(int i = 0, len = getSegmentLength(); i < len; i++){
-            if(segs[i] == other) return false;
-        }
-        return true;
+        //segments of the same worm share their head, which acts as the worm's instance tag
+        return trueParentUnit == null || !(other instanceof WormSegmentUnit seg && seg.trueParentUnit == trueParentUnit);
     }
 
     @Override
@@ -62,9 +62,11 @@ public class TexturedTrail extends Trail{
     private static final float[] vertices = new float[24];
     private static final Color tmp = new Color();
 
-    // sigh.
-    protected final FloatSeq points;
+    /** Points as x, y, width, and the distance travelled along the trail up to that point. */
+    protected final TrailPoints points;
     protected float lastX = -1f, lastY = -1f, lastAngle = -1f, lastW = 0f, counter = 0f;
+    /** Maps a point's travelled distance to its progress along the trail; see {@link #progress(int)}. */
+    protected float progressBase, progressScl;
 
     public TexturedTrail(TextureRegion region, TextureRegion capRegion, int length){
         this(length);
@@ -82,7 +84,7 @@ public class TexturedTrail extends Trail{
         super(0); // Don't allocate anything for base class' point array.
 
         this.length = length;
-        points = new FloatSeq(length * 4);
+        points = new TrailPoints(4, length);
     }
 
     @Override
@@ -105,12 +107,14 @@ public class TexturedTrail extends Trail{
         out.trailWidth = trailWidth;
         out.trailColor = trailColor;
         out.trailThreshold = trailThreshold;
-        out.points.addAll(points);
+        out.points.set(points);
         out.lastX = lastX;
         out.lastY = lastY;
         out.lastAngle = lastAngle;
         out.lastW = lastW;
         out.counter = counter;
+        out.progressBase = progressBase;
+        out.progressScl = progressScl;
         return out;
     }
 
@@ -121,7 +125,7 @@ public class TexturedTrail extends Trail{
 
     @Override
     public int size(){
-        return points.size / 4;
+        return points.size();
     }
 
     @Override
@@ -131,10 +135,10 @@ public class TexturedTrail extends Trail{
         float width = baseWidth * widthMultiplier;
         if(capRegion == null) capRegion = Core.atlas.find("unity-hcircle");
 
-        int psize = points.size;
+        int psize = points.size();
         if(psize > 0){
             float
-                rv = psize / 4f / length,
+                rv = psize / (float)length,
                 alpha = rv * fadeAlpha + (1f - fadeAlpha),
                 w = Mathf.map(rv, 1f - shrink, 1f) * width * lastW * 2f,
                 h = ((float)capRegion.height / capRegion.width) * w,
@@ -225,32 +229,34 @@ public class TexturedTrail extends Trail{
         if(points.isEmpty()) return;
 
         float[] items = points.items;
-        int psize = points.size;
+        int psize = points.size();
 
         float
             endAngle = this.lastAngle, lastAngle = endAngle,
             u = region.u2, v = region.v2, u2 = region.u, v2 = region.v, uh = Mathf.lerp(u, u2, 0.5f);
 
         Draw.blend(blend);
-        for(int i = 0; i < psize; i += 4){ // Draw from tail to head.
+        for(int s = 0; s < psize; s++){ // Draw from tail to head.
+            int i = points.offset(s);
             float
-                x1 = items[i], y1 = items[i + 1], w1 = items[i + 2], rv1 = Mathf.clamp(items[i + 3]),
+                x1 = items[i], y1 = items[i + 1], w1 = items[i + 2], rv1 = progress(s),
                 x2, y2, w2, rv2;
 
-            if(i < psize - 4){
-                x2 = items[i + 4];
-                y2 = items[i + 5];
-                w2 = items[i + 6];
-                rv2 = Mathf.clamp(items[i + 7]);
+            if(s < psize - 1){
+                int j = points.offset(s + 1);
+                x2 = items[j];
+                y2 = items[j + 1];
+                w2 = items[j + 2];
+                rv2 = progress(s + 1);
             }else{
                 x2 = lastX;
                 y2 = lastY;
                 w2 = lastW;
-                rv2 = psize / 4f / length;
+                rv2 = psize / (float)length;
             }
 
             float
-                z2 = i == psize - 4 ? endAngle : -Angles.angleRad(x1, y1, x2, y2), z1 = i == 0 ? z2 : lastAngle,
+                z2 = s == psize - 1 ? endAngle : -Angles.angleRad(x1, y1, x2, y2), z1 = s == 0 ? z2 : lastAngle,
                 fs1 = Mathf.map(rv1, 1f - shrink, 1f) * width * w1,
                 fs2 = Mathf.map(rv2, 1f - shrink, 1f) * width * w2,
 
@@ -334,7 +340,7 @@ public class TexturedTrail extends Trail{
     @Override
     public void shorten(){
         if((counter += Time.delta) >= 0.96f){
-            if(points.size >= 4) points.removeRange(0, 3);
+            points.removeFirst();
             counter = 0f;
         }
 
@@ -348,10 +354,11 @@ public class TexturedTrail extends Trail{
 
         if((counter += Time.delta) >= 0.96f){
             if(dst >= minDst){
-                if(points.size > length * 4 - 4) points.removeRange(0, 3);
-                points.add(x, y, width, 0f);
-            }else if(points.size >= 4){
-                points.removeRange(0, 3);
+                int n = points.size();
+                float travelled = n == 0 ? 0f : points.get(n - 1, 3) + Mathf.dst(points.get(n - 1, 0), points.get(n - 1, 1), x, y);
+                points.add(x, y, width, travelled);
+            }else{
+                points.removeFirst();
             }
 
             counter = 0f;
@@ -363,34 +370,40 @@ public class TexturedTrail extends Trail{
         lastW = width;
         calcProgress();
 
-        int psize = points.size;
+        int psize = points.size();
         if(psize > 0 && trailChance > 0f && Mathf.chanceDelta(trailChance * Mathf.clamp(dst / trailThreshold))){
             trailEffect.at(
                 x, y, width * trailWidth,
-                tmp.set(trailColor).a(fadeInterp.apply(Mathf.clamp((psize / 4f / length) * fadeAlpha + (1f - fadeAlpha))))
+                tmp.set(trailColor).a(fadeInterp.apply(Mathf.clamp((psize / (float)length) * fadeAlpha + (1f - fadeAlpha))))
             );
         }
     }
 
+    /**
+     * Recalculates the mapping from travelled distance to trail progress. Runs in constant time, as every point stores the
+     * distance travelled up to it when it's added.
+     */
     public void calcProgress(){
-        int psize = points.size;
+        int psize = points.size();
         if(psize > 0){
-            float[] items = points.items;
-
-            float maxDst = 0f;
-            for(int i = 0; i < psize; i += 4){
-                float
-                    x = items[i], y = items[i + 1],
-                    dst = i < psize - 4 ? Mathf.dst(x, y, items[i + 4], items[i + 5]) : Mathf.dst(x, y, lastX, lastY);
-
-                items[i + 3] = maxDst;
-                maxDst += dst;
+            float first = points.get(0, 3);
+            if(first > 8192f){
+                // Keep travelled distances small, so they don't lose float precision on long-lived trails.
+                for(int i = 0; i < psize; i++) points.set(i, 3, points.get(i, 3) - first);
+                first = 0f;
             }
 
-            float frac = psize / 4f / length;
-            for(int i = 0; i < psize; i += 4){
-                items[i + 3] = Mathf.clamp((items[i + 3] / maxDst) * frac);
-            }
+            int last = points.offset(psize - 1);
+            float[] items = points.items;
+            float maxDst = items[last + 3] - first + Mathf.dst(items[last], items[last + 1], lastX, lastY);
+
+            progressBase = first;
+            progressScl = maxDst > 0f ? (psize / (float)length) / maxDst : 0f;
         }
     }
+
+    /** @return The progress of the {@code index}-th point along the trail, where 0 is the tail. */
+    public float progress(int index){
+        return Mathf.clamp((points.get(index, 3) - progressBase) * progressScl);
+    }
 }
@@ -0,0 +1,77 @@
+package unity.graphics;
+
+/**
+ * Fixed-capacity ring buffer of trail points, each made of {@link #stride} floats. Adding to a full buffer and removing the
+ * oldest point are both O(1); nothing is ever shifted.
+ */
+public class TrailPoints{
+    public final int stride, capacity;
+    public final float[] items;
+
+    private int start, size;
+
+    public TrailPoints(int stride, int capacity){
+        this.stride = stride;
+        this.capacity = Math.max(capacity, 1);
+        items = new float[this.capacity * stride];
+    }
+
+    /** @return The amount of points. */
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /** @return The offset of the {@code index}-th point in {@link #items}, where 0 is the oldest point. */
+    public int offset(int index){
+        int i = start + index;
+        return (i >= capacity ? i - capacity : i) * stride;
+    }
+
+    public float get(int index, int component){
+        return items[offset(index) + component];
+    }
+
+    public void set(int index, int component, float value){
+        items[offset(index) + component] = value;
+    }
+
+    /** Appends a new point, dropping the oldest one if this buffer is full. Returns the new point's offset. */
+    public int add(){
+        if(size == capacity) removeFirst();
+
+        int off = offset(size);
+        size++;
+        return off;
+    }
+
+    public void add(float a, float b, float c, float d){
+        int off = add();
+        items[off] = a;
+        items[off + 1] = b;
+        items[off + 2] = c;
+        items[off + 3] = d;
+    }
+
+    public void removeFirst(){
+        if(size == 0) return;
+
+        start = start + 1 == capacity ? 0 : start + 1;
+        size--;
+    }
+
+    public void clear(){
+        start = size = 0;
+    }
+
+    public void set(TrailPoints other){
+        clear();
+        for(int i = 0, len = Math.min(other.size, capacity); i < len; i++){
+            System.arraycopy(other.items, other.offset(other.size - len + i), items, offset(size), stride);
+            size++;
+        }
+    }
+}
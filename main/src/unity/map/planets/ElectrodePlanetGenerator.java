@@ -11,6 +11,7 @@ import mindustry.ai.BaseRegistry.*;
 import mindustry.content.*;
 import mindustry.game.*;
 import mindustry.maps.generators.*;
+import mindustry.type.Sector.*;
 import mindustry.world.*;
 
 import static mindustry.Vars.*;
@@ -41,8 +42,24 @@ public class ElectrodePlanetGenerator extends PlanetGenerator{
 
     float waterf = 2f / arr[0].length;
 
+    // Raw height and floor block id of the mesh vertices, evaluated once per vertex.
+    public final PlanetSamples samples = new PlanetSamples(2, this::sample);
+
+    void sample(Vec3 position, float[] out, int offset){
+        Vec3 tmp = new Vec3();
+        float height = rawHeight(position, tmp);
+
+        out[offset] = height;
+        out[offset + 1] = getBlock(position, height, tmp).id;
+    }
+
     float rawHeight(Vec3 position){
-        position = Tmp.v33.set(position).scl(scl);
+        int slot = samples.find(position);
+        return slot != -1 ? samples.get(slot, 0) : rawHeight(position, Tmp.v33);
+    }
+
+    float rawHeight(Vec3 position, Vec3 tmp){
+        position = tmp.set(position).scl(scl);
         return (Mathf.pow((float)Simplex.noise3d(0, 5, 0.5f, 1f / 3f, position.x, position.y, position.z), 3f) + Math.abs(Mathf.sin(position.x) + Mathf.cos(position.y)) / 5 + waterOffset) / (1f + waterOffset);
     }
 
@@ -71,10 +88,14 @@ public class ElectrodePlanetGenerator extends PlanetGenerator{
     }
 
     Block getBlock(Vec3 position){
-        float height = rawHeight(position);
+        int slot = samples.find(position);
+        if(slot != -1) return content.block((int)samples.get(slot, 1));
+
+        return getBlock(position, rawHeight(position, Tmp.v33), Tmp.v33);
+    }
 
-        Tmp.v31.set(position);
-        position = Tmp.v33.set(position).scl(scl);
+    Block getBlock(Vec3 position, float height, Vec3 tmp){
+        position = tmp.set(position).scl(scl);
 
         float rad = scl;
         float temp = Mathf.clamp(Math.abs(position.y * 2f) / (rad));
@@ -89,7 +110,11 @@ public class ElectrodePlanetGenerator extends PlanetGenerator{
 
     @Override
     protected float noise(float x, float y, double octaves, double falloff, double scl, double mag){
-        Vec3 v = sector.rect.project(x, y).scl(5f);
+        return noise(sector.rect, x, y, octaves, falloff, scl, mag);
+    }
+
+    float noise(SectorRect rect, float x, float y, double octaves, double falloff, double scl, double mag){
+        Vec3 v = rect.project(x, y).scl(5f);
         return (float)Simplex.noise3d(0, octaves, falloff, 1f / scl, v.x, v.y, v.z) * (float)mag;
     }
 
@@ -216,16 +241,16 @@ public class ElectrodePlanetGenerator extends PlanetGenerator{
             frequencies.add(rand.random(-0.09f, 0.01f) - i * 0.01f);
         }
 
-        pass((x, y) -> {
-            if(!floor.asFloor().hasSurface()) return;
+        SectorPasses.local(tiles, sector.rect, (x, y, s) -> {
+            if(!s.floor.asFloor().hasSurface()) return;
 
             int offsetX = x - 4, offsetY = y + 23;
             for(int i = ores.size - 1; i >= 0; i--){
                 Block entry = ores.get(i);
                 float freq = frequencies.get(i);
-                if(Math.abs(0.5f - noise(offsetX, offsetY + i * 999, 2, 0.7, (40 + i * 2))) > 0.22f + i * 0.01 &&
-                    Math.abs(0.5f - noise(offsetX, offsetY - i * 999, 1, 1, (30 + i * 4))) > 0.37f + freq){
-                    ore = entry;
+                if(Math.abs(0.5f - noise(s.rect, offsetX, offsetY + i * 999, 2, 0.7, (40 + i * 2), 1)) > 0.22f + i * 0.01 &&
+                    Math.abs(0.5f - noise(s.rect, offsetX, offsetY - i * 999, 1, 1, (30 + i * 4), 1)) > 0.37f + freq){
+                    s.ore = entry;
                     break;
                 }
             }
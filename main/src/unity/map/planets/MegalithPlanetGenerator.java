@@ -12,6 +12,7 @@ import mindustry.content.*;
 import mindustry.game.*;
 import mindustry.maps.generators.*;
 import mindustry.type.*;
+import mindustry.type.Sector.*;
 import mindustry.world.*;
 import unity.*;
 import unity.content.*;
@@ -71,13 +72,35 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
         return position.within(crater, craterRadius + epsilon);
     }
 
+    // Raw height, floor block id, and vertex color of the mesh vertices, evaluated once per vertex.
+    public final PlanetSamples samples = new PlanetSamples(6, this::sample);
+
+    protected void sample(Vec3 position, float[] out, int offset){
+        Vec3 tmp = new Vec3();
+        float height = rawHeight(position, tmp);
+        Block block = getBlock(position, height, tmp);
+        Color color = getColor(position, block, new Color());
+
+        out[offset] = height;
+        out[offset + 1] = block.id;
+        out[offset + 2] = color.r;
+        out[offset + 3] = color.g;
+        out[offset + 4] = color.b;
+        out[offset + 5] = color.a;
+    }
+
     // Gets a raw height from 3D simplex noise.
     protected float rawHeight(Vec3 position){
-        Tmp.v33.set(position).scl(scl);
-        float res = (Mathf.pow(Simplex.noise3d(0, 6d, 0.5d, 1d / 3d, Tmp.v33.x, Tmp.v33.y, Tmp.v33.z), 2.3f) + waterOffset) / (1f + waterOffset);
+        int slot = samples.find(position);
+        return slot != -1 ? samples.get(slot, 0) : rawHeight(position, Tmp.v33);
+    }
+
+    protected float rawHeight(Vec3 position, Vec3 tmp){
+        tmp.set(position).scl(scl);
+        float res = (Mathf.pow(Simplex.noise3d(0, 6d, 0.5d, 1d / 3d, tmp.x, tmp.y, tmp.z), 2.3f) + waterOffset) / (1f + waterOffset);
 
         if(withinCrater(position, 0.03f)){
-            float n = Simplex.noise3d(0, 8.4d, 0.4d, 0.27d, Tmp.v33.x, Tmp.v33.y, Tmp.v33.z) * (craterRadius / 4f);
+            float n = Simplex.noise3d(0, 8.4d, 0.4d, 0.27d, tmp.x, tmp.y, tmp.z) * (craterRadius / 4f);
             float depth = Interp.pow2Out.apply(1f - (position.dst(crater) / craterRadius));
 
             return res - (craterDepth * depth + (1f - depth) * n);
@@ -96,15 +119,20 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
     // The vertex color attribute, obtained from the block in the specific position.
     @Override
     public Color getColor(Vec3 position){
-        Block block = getBlock(position);
+        int slot = samples.find(position);
+        if(slot != -1) return Tmp.c1.set(samples.get(slot, 2), samples.get(slot, 3), samples.get(slot, 4), samples.get(slot, 5));
 
-        Color base = Tmp.c1.set(block.mapColor);
+        return getColor(position, getBlock(position), Tmp.c1);
+    }
+
+    protected Color getColor(Vec3 position, Block block, Color out){
+        out.set(block.mapColor);
         if(block == sharpslate){
             float res = Simplex.noise3d(0, 6d, 0.5d, 0.5d, position.x, position.y, position.z) * 0.2f;
-            base.lerp(UnityPal.monolithLight, res);
+            out.lerp(UnityPal.monolithLight, res);
         }
 
-        return base.a(1f - block.albedo);
+        return out.a(1f - block.albedo);
     }
 
     @Override
@@ -118,8 +146,8 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
     }
 
     // Gets the block array in the planet ball position, sorted by their height.
-    Block[] getBlockset(Vec3 position){
-        position = Tmp.v33.set(position).scl(scl);
+    Block[] getBlockset(Vec3 position, Vec3 tmp){
+        position = tmp.set(position).scl(scl);
 
         float rad = scl;
         float temp = Mathf.clamp(Math.abs(position.y * 2f) / rad);
@@ -132,9 +160,16 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
 
     // Gets the block from the block set at the specific position, and avoids returning a liquid block if is within the crater.
     protected Block getBlock(Vec3 position){
-        Block[] set = getBlockset(position);
+        int slot = samples.find(position);
+        if(slot != -1) return content.block((int)samples.get(slot, 1));
 
-        int i = Mathf.clamp((int)(Mathf.clamp(rawHeight(position) * 1.2f) * set.length), 0, set.length - 1);
+        return getBlock(position, rawHeight(position, Tmp.v33), Tmp.v33);
+    }
+
+    protected Block getBlock(Vec3 position, float height, Vec3 tmp){
+        Block[] set = getBlockset(position, tmp);
+
+        int i = Mathf.clamp((int)(Mathf.clamp(height * 1.2f) * set.length), 0, set.length - 1);
         if(withinCrater(position, 0.1f)){
             while(i < set.length && set[i].asFloor().isLiquid){
                 i++;
@@ -146,7 +181,12 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
 
     @Override
     protected float noise(float x, float y, double octaves, double falloff, double scl, double mag){
-        Vec3 v = sector.rect.project(x, y).scl(this.scl);
+        return noise(sector.rect, x, y, octaves, falloff, scl, mag);
+    }
+
+    // Same as above, projecting through the given rect so parallel passes don't share its result vector.
+    protected float noise(SectorRect rect, float x, float y, double octaves, double falloff, double scl, double mag){
+        Vec3 v = rect.project(x, y).scl(this.scl);
         return Simplex.noise3d(0, octaves, falloff, 1f / scl, v.x, v.y, v.z) * (float)mag;
     }
 
@@ -304,9 +344,9 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
         float difficulty = sector.threat;
 
         // Replace sand with dark sand.
-        pass((x, y) -> {
-            if(floor == sand) floor = darksand;
-            if(block == sandWall) block = duneWall;
+        SectorPasses.local(tiles, sector.rect, (x, y, s) -> {
+            if(s.floor == sand) s.floor = darksand;
+            if(s.block == sandWall) s.block = duneWall;
         });
 
         // Noise archaic and infused sharpslates.
@@ -375,9 +415,9 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
             frequencies.add(rand.random(-0.09f, 0.01f) - i * 0.01f);
         }
 
-        // Generate ore tiles in the map.
-        pass((x, y) -> {
-            if(floor.asFloor().isLiquid) return;
+        // Generate ore tiles in the map. Purely noise-driven, so it's run in parallel bands.
+        SectorPasses.local(tiles, sector.rect, (x, y, s) -> {
+            if(s.floor.asFloor().isLiquid) return;
 
             float offsetX = x - 4f;
             float offsetY = y + 23f;
@@ -387,10 +427,10 @@ public class MegalithPlanetGenerator extends PlanetGenerator{
                 float freq = frequencies.get(i);
 
                 if(
-                    Math.abs(0.5f - noise(offsetX, offsetY + i * 999f, 2d, 0.7d, (40d + i * 2d))) > 0.22d + i * 0.01d &&
-                    Math.abs(0.5f - noise(offsetX, offsetY - i * 999f, 1d, 1d, (30d + i * 4d))) > 0.37d + freq
+                    Math.abs(0.5f - noise(s.rect, offsetX, offsetY + i * 999f, 2d, 0.7d, (40d + i * 2d), 1d)) > 0.22d + i * 0.01d &&
+                    Math.abs(0.5f - noise(s.rect, offsetX, offsetY - i * 999f, 1d, 1d, (30d + i * 4d), 1d)) > 0.37d + freq
                 ){
-                    ore = entry;
+                    s.ore = entry;
                     break;
                 }
             }
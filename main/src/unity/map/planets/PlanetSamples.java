@@ -0,0 +1,117 @@
+package unity.map.planets;
+
+import arc.math.geom.*;
+import mindustry.graphics.g3d.*;
+import mindustry.graphics.g3d.PlanetGrid.*;
+
+import java.util.stream.*;
+
+/**
+ * Table of planet generator samples at the vertex positions of a planet grid. Every position is sampled once, in parallel,
+ * and the results are shared by height, color, and block lookups during mesh building. Positions outside the table are not
+ * cached; generators should sample those directly.
+ */
+public class PlanetSamples{
+    public final int stride;
+    private final Sampler sampler;
+
+    private int[] keys = {};
+    private boolean[] filled = {};
+    private float[] values = {};
+    private int mask = -1;
+
+    public PlanetSamples(int stride, Sampler sampler){
+        this.stride = stride;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Samples every tile center and corner of the planet grid with the given subdivisions, replacing the current table. The
+     * work is split across worker threads; the sampler must be thread-safe, and the results don't depend on scheduling.
+     */
+    public void prefill(int divisions){
+        PlanetGrid grid = PlanetGrid.create(divisions);
+
+        int count = grid.tiles.length + grid.corners.length;
+        float[] positions = new float[count * 3];
+
+        int n = 0;
+        for(Ptile tile : grid.tiles){
+            positions[n++] = tile.v.x;
+            positions[n++] = tile.v.y;
+            positions[n++] = tile.v.z;
+        }
+
+        for(Corner corner : grid.corners){
+            positions[n++] = corner.v.x;
+            positions[n++] = corner.v.y;
+            positions[n++] = corner.v.z;
+        }
+
+        float[] samples = new float[count * stride];
+        int workers = Math.max(Runtime.getRuntime().availableProcessors(), 1);
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            Vec3 position = new Vec3();
+            for(int i = worker; i < count; i += workers){
+                sampler.sample(position.set(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]), samples, i * stride);
+            }
+        });
+
+        int capacity = Integer.highestOneBit(Math.max(count * 2, 2) - 1) << 1;
+        keys = new int[capacity * 3];
+        filled = new boolean[capacity];
+        values = new float[capacity * stride];
+        mask = capacity - 1;
+
+        for(int i = 0; i < count; i++){
+            int x = Float.floatToIntBits(positions[i * 3]), y = Float.floatToIntBits(positions[i * 3 + 1]), z = Float.floatToIntBits(positions[i * 3 + 2]);
+
+            int slot = hash(x, y, z) & mask;
+            while(filled[slot] && !matches(slot, x, y, z)) slot = (slot + 1) & mask;
+
+            filled[slot] = true;
+            keys[slot * 3] = x;
+            keys[slot * 3 + 1] = y;
+            keys[slot * 3 + 2] = z;
+            System.arraycopy(samples, i * stride, values, slot * stride, stride);
+        }
+    }
+
+    /** Discards the table. */
+    public void clear(){
+        keys = new int[0];
+        filled = new boolean[0];
+        values = new float[0];
+        mask = -1;
+    }
+
+    /** @return The slot of the sample at exactly this position, or -1 if it wasn't prefilled. */
+    public int find(Vec3 position){
+        if(mask == -1) return -1;
+
+        int x = Float.floatToIntBits(position.x), y = Float.floatToIntBits(position.y), z = Float.floatToIntBits(position.z);
+        for(int slot = hash(x, y, z) & mask; filled[slot]; slot = (slot + 1) & mask){
+            if(matches(slot, x, y, z)) return slot;
+        }
+
+        return -1;
+    }
+
+    public float get(int slot, int component){
+        return values[slot * stride + component];
+    }
+
+    boolean matches(int slot, int x, int y, int z){
+        return keys[slot * 3] == x && keys[slot * 3 + 1] == y && keys[slot * 3 + 2] == z;
+    }
+
+    static int hash(int x, int y, int z){
+        int h = (x * 31 + y) * 31 + z;
+        return h ^ (h >>> 16);
+    }
+
+    public interface Sampler{
+        /** Writes the table's stride of sample components of the given position into {@code out}, starting at {@code offset}. */
+        void sample(Vec3 position, float[] out, int offset);
+    }
+}
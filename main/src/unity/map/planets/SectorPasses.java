@@ -0,0 +1,70 @@
+package unity.map.planets;
+
+import mindustry.type.Sector.*;
+import mindustry.world.*;
+
+import java.util.stream.*;
+
+/**
+ * Runs sector generation passes over horizontal bands of rows in parallel. Only passes whose result for a tile depends on
+ * nothing but that tile and deterministic noise may be run here; anything consuming the generator's shared random or
+ * relying on visiting order must stay serial. Since no two bands touch the same tile, the output is identical to a serial
+ * pass.
+ */
+public final class SectorPasses{
+    /** Whether passes may run in parallel at all. */
+    public static boolean parallel = true;
+    /** Minimum amount of rows per band. */
+    public static int minRows = 16;
+
+    private SectorPasses(){
+        throw new AssertionError();
+    }
+
+    /** Runs a pass that reads and writes only the tile it's given. */
+    public static void local(Tiles tiles, SectorRect rect, TilePass pass){
+        int height = tiles.height;
+        int bands = parallel ? Math.max(Math.min(Runtime.getRuntime().availableProcessors(), height / Math.max(minRows, 1)), 1) : 1;
+
+        if(bands == 1){
+            band(tiles, rect, pass, 0, height);
+        }else{
+            IntStream.range(0, bands).parallel().forEach(i -> band(tiles, rect, pass, i * height / bands, (i + 1) * height / bands));
+        }
+    }
+
+    static void band(Tiles tiles, SectorRect rect, TilePass pass, int fromY, int toY){
+        // SectorRect#project() writes into a shared vector, so every band projects through its own copy.
+        TileState state = new TileState(new SectorRect(rect.radius, rect.center, rect.top, rect.right, rect.rotation));
+
+        for(int y = fromY; y < toY; y++){
+            for(int x = 0; x < tiles.width; x++){
+                Tile tile = tiles.getn(x, y);
+                Block floor = state.floor = tile.floor(), block = state.block = tile.block(), ore = state.ore = tile.overlay();
+
+                pass.get(x, y, state);
+
+                if(state.floor != floor || state.block != block || state.ore != ore){
+                    tile.setFloor(state.floor.asFloor());
+                    tile.setBlock(state.block);
+                    tile.setOverlay(state.ore);
+                }
+            }
+        }
+    }
+
+    /** Mutable tile contents handed to a pass, mirroring the fields used by serial generator passes. */
+    public static class TileState{
+        public Block floor, block, ore;
+        /** This band's copy of the sector rect, safe to {@link SectorRect#project(float, float)} with. */
+        public final SectorRect rect;
+
+        TileState(SectorRect rect){
+            this.rect = rect;
+        }
+    }
+
+    public interface TilePass{
+        void get(int x, int y, TileState state);
+    }
+}
@@ -56,6 +56,8 @@ public class UnityUnitType extends UnitType{
     public float segmentDamageScl = 6f;
     public float anglePhysicsSmooth = 0f;
     public float jointStrength = 1f;
+    // Extra joint relaxation passes of the chain solver; 1 is plain segment movement
+    public int segmentIterations = 1;
     public float barrageRange = 150f;
     // Hopefully make segment movement more consistent
     public boolean counterDrag = false;
@@ -0,0 +1,98 @@
+package unity.util;
+
+import arc.*;
+import arc.math.*;
+import mindustry.game.*;
+import mindustry.game.EventType.*;
+import mindustry.gen.*;
+
+import java.util.*;
+
+import static mindustry.Vars.*;
+
+/**
+ * Per-team unit density grid. Ground and air units are bucketed into tile-sized cells once per frame, and summed-area
+ * tables over the cells answer "how many units are around this point" in constant time. Counts cover the cells whose
+ * centers lie in the query square, so they're off from an exact radius query by at most the square's corners and half a
+ * tile at its edges, which is close enough for cluster-seeking target sorts.
+ */
+public class UnitDensity{
+    /** Size of a cell, in tiles. Kept at one so that queries as small as a few tiles aren't inflated by whole cells. */
+    public static final int cellSize = 1;
+
+    private static final UnitDensity[] grids = new UnitDensity[Team.all.length];
+
+    static{
+        Events.on(ResetEvent.class, e -> Arrays.fill(grids, null));
+    }
+
+    public final Team team;
+    public final int width, height;
+
+    /** Summed-area tables, {@code (width + 1) * (height + 1)} with a zero border on the low edges. */
+    final int[] ground, air;
+    private long frame = -1;
+
+    UnitDensity(Team team){
+        this.team = team;
+        width = Math.max(world.width() / cellSize + 1, 1);
+        height = Math.max(world.height() / cellSize + 1, 1);
+
+        ground = new int[(width + 1) * (height + 1)];
+        air = new int[(width + 1) * (height + 1)];
+    }
+
+    /** @return The up-to-date density grid of the given team's units. */
+    public static UnitDensity get(Team team){
+        UnitDensity grid = grids[team.id];
+        if(grid == null || grid.width != Math.max(world.width() / cellSize + 1, 1) || grid.height != Math.max(world.height() / cellSize + 1, 1)){
+            grid = grids[team.id] = new UnitDensity(team);
+        }
+
+        grid.update();
+        return grid;
+    }
+
+    /** @return Approximately how many of this team's units matching the air and ground filters are within range of the point. */
+    public int count(float x, float y, float range, boolean air, boolean ground){
+        float cs = cellSize * tilesize;
+        int
+            x1 = Math.max(Mathf.ceil((x - range) / cs - 0.5f), 0), y1 = Math.max(Mathf.ceil((y - range) / cs - 0.5f), 0),
+            x2 = Math.min(Mathf.floor((x + range) / cs - 0.5f), width - 1), y2 = Math.min(Mathf.floor((y + range) / cs - 0.5f), height - 1);
+        if(x1 > x2 || y1 > y2) return 0;
+
+        int total = 0;
+        if(ground) total += sum(this.ground, x1, y1, x2, y2);
+        if(air) total += sum(this.air, x1, y1, x2, y2);
+        return total;
+    }
+
+    int sum(int[] table, int x1, int y1, int x2, int y2){
+        int w = width + 1;
+        return table[(y2 + 1) * w + x2 + 1] - table[y1 * w + x2 + 1] - table[(y2 + 1) * w + x1] + table[y1 * w + x1];
+    }
+
+    void update(){
+        long frameId = Core.graphics.getFrameId();
+        if(frameId == frame) return;
+        frame = frameId;
+
+        Arrays.fill(ground, 0);
+        Arrays.fill(air, 0);
+
+        int w = width + 1;
+        float cs = cellSize * tilesize;
+        for(Unit u : team.data().units){
+            int cx = Mathf.clamp((int)(u.x / cs), 0, width - 1), cy = Mathf.clamp((int)(u.y / cs), 0, height - 1);
+            (u.isFlying() ? air : ground)[(cy + 1) * w + cx + 1]++;
+        }
+
+        for(int y = 1; y <= height; y++){
+            for(int x = 1; x <= width; x++){
+                int i = y * w + x;
+                ground[i] += ground[i - 1] + ground[i - w] - ground[i - w - 1];
+                air[i] += air[i - 1] + air[i - w] - air[i - w - 1];
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package unity.util;
 
 import arc.*;
+import arc.files.*;
 import arc.func.*;
 import arc.graphics.*;
 import arc.math.*;
@@ -1083,6 +1084,23 @@ public final class Utils{
         }
     }
 
+    /**
+     * @return Whether a file baked by the tools module exists and is at least as new as every existing source it was baked
+     * from. Unknown modification times, such as those of some archived files, count as up to date.
+     */
+    public static boolean upToDate(Fi baked, Fi... sources){
+        if(!baked.exists()) return false;
+
+        long time = baked.lastModified();
+        if(time <= 0) return true;
+
+        for(Fi source : sources){
+            if(source != null && source.exists() && source.lastModified() > time) return false;
+        }
+
+        return true;
+    }
+
     public interface HitHandler{
         boolean get(float x, float y, Healthc ent, boolean direct);
     }
@@ -0,0 +1,147 @@
+package unity.util;
+
+import arc.files.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import unity.util.WavefrontObject.*;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ * Reads and writes {@code .objc} files, a compact binary form of a parsed {@link WavefrontObject} and its materials baked by
+ * the tools module. Vertex data is stored raw and read in bulk, so loading skips text parsing entirely.
+ */
+public final class WavefrontCodec{
+    public static final String extension = "objc";
+    public static final int magic = 0x554F424A, version = 1;
+
+    private WavefrontCodec(){
+        throw new AssertionError();
+    }
+
+    /** Reads the compact file into an empty object, then calls {@link WavefrontObject#finishLoad()}. */
+    public static void read(Fi file, WavefrontObject object){
+        try(DataInputStream in = new DataInputStream(file.read(8192))){
+            if(in.readInt() != magic) throw new IllegalArgumentException("'" + file.name() + "' is not a compact object file");
+
+            int ver = in.readUnsignedByte();
+            if(ver != version) throw new IllegalArgumentException("Unsupported compact object version " + ver + " in '" + file.name() + "'");
+
+            int materialCount = in.readInt();
+            Material[] materials = new Material[materialCount];
+            for(int i = 0; i < materialCount; i++){
+                Material mat = materials[i] = object.material(in.readUTF());
+                mat.ambientCol = in.readInt();
+                mat.diffuseCol = in.readInt();
+                mat.emitCol = in.readInt();
+                mat.hasColor = in.readBoolean();
+
+                if(in.readBoolean()) object.diffuseTexture(mat, in.readUTF());
+                if(in.readBoolean()) object.emitTexture(mat, in.readUTF());
+            }
+
+            float[] vertices = floats(in);
+            for(int i = 0; i < vertices.length; i += 3) object.addVertex(vertices[i], vertices[i + 1], vertices[i + 2]);
+
+            float[] uvs = floats(in);
+            for(int i = 0; i < uvs.length; i += 2) object.addUV(uvs[i], uvs[i + 1]);
+
+            float[] normals = floats(in);
+            for(int i = 0; i < normals.length; i += 3) object.addNormal(normals[i], normals[i + 1], normals[i + 2]);
+
+            int faceCount = in.readInt();
+            for(int i = 0; i < faceCount; i++){
+                int mat = in.readInt();
+                object.addFace(ints(in), ints(in), ints(in), mat == -1 ? null : materials[mat]);
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+
+        object.finishLoad();
+    }
+
+    public static void write(WavefrontObject object, OutputStream stream) throws IOException{
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 8192));
+        out.writeInt(magic);
+        out.writeByte(version);
+
+        Seq<Material> materials = object.materials == null ? new Seq<>() : object.materials.values().toSeq();
+        ObjectIntMap<Material> materialIds = new ObjectIntMap<>();
+
+        out.writeInt(materials.size);
+        for(int i = 0; i < materials.size; i++){
+            Material mat = materials.get(i);
+            materialIds.put(mat, i);
+
+            out.writeUTF(mat.name);
+            out.writeInt(mat.ambientCol);
+            out.writeInt(mat.diffuseCol);
+            out.writeInt(mat.emitCol);
+            out.writeBoolean(mat.hasColor);
+
+            out.writeBoolean(mat.diffTexName != null);
+            if(mat.diffTexName != null) out.writeUTF(mat.diffTexName);
+
+            out.writeBoolean(mat.emitTexName != null);
+            if(mat.emitTexName != null) out.writeUTF(mat.emitTexName);
+        }
+
+        FloatSeq data = new FloatSeq();
+        for(Vec3 v : object.vertices) data.add(v.x, v.y, v.z);
+        floats(out, data);
+
+        data.clear();
+        for(Vec2 v : object.uvs) data.add(v.x, v.y);
+        floats(out, data);
+
+        data.clear();
+        for(Vec3 v : object.normals) data.add(v.x, v.y, v.z);
+        floats(out, data);
+
+        out.writeInt(object.faces.size);
+        for(Face face : object.faces){
+            out.writeInt(face.mat == null ? -1 : materialIds.get(face.mat, -1));
+            ints(out, face.indices);
+            ints(out, face.texIndices);
+            ints(out, face.normalIndices);
+        }
+
+        out.flush();
+    }
+
+    static float[] floats(DataInputStream in) throws IOException{
+        float[] values = new float[in.readInt()];
+        bulk(in, values.length * 4).asFloatBuffer().get(values);
+        return values;
+    }
+
+    static void floats(DataOutputStream out, FloatSeq values) throws IOException{
+        ByteBuffer buffer = ByteBuffer.allocate(values.size * 4);
+        buffer.asFloatBuffer().put(values.items, 0, values.size);
+
+        out.writeInt(values.size);
+        out.write(buffer.array());
+    }
+
+    static int[] ints(DataInputStream in) throws IOException{
+        int[] values = new int[in.readInt()];
+        bulk(in, values.length * 4).asIntBuffer().get(values);
+        return values;
+    }
+
+    static void ints(DataOutputStream out, int[] values) throws IOException{
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+        buffer.asIntBuffer().put(values);
+
+        out.writeInt(values.length);
+        out.write(buffer.array());
+    }
+
+    static ByteBuffer bulk(DataInputStream in, int length) throws IOException{
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+}
@@ -14,7 +14,6 @@ import mindustry.*;
 import mindustry.graphics.*;
 import unity.*;
 
-import java.io.*;
 import java.util.*;
 
 /**
@@ -49,201 +48,184 @@ public class WavefrontObject{
     public float size = 1f;
     public float shadingSmoothness = 2.8f;
     public float drawLayer = Layer.blockBuilding;
-    protected int indexerA;
-    protected float indexerZ;
 
-    public void load(Fi file, @Nullable Fi material){
-        if(material != null){
-            BufferedReader matR = material.reader(64);
-            Material current = null;
-            while(true){
-                try{
-                    String line = matR.readLine();
-                    if(line == null) break;
-
-                    if(line.contains("newmtl ")){
-                        current = new Material();
-                        current.name = line.replaceFirst("newmtl ", "");
-
-                        if(materials == null) materials = new ObjectMap<>();
-                        materials.put(current.name, current);
-                        hasMaterial = true;
-                    }
+    /** If positive, draws without a vertex transformer reuse poses transformed at rotations quantised to this many degrees. */
+    public float cacheStep = 0f;
+    /** Maximum amount of cached poses before the cache is flushed. */
+    public int cacheSize = 256;
 
-                    if(line.startsWith("Ka ") && current != null){
-                        String[] val = line.replaceFirst("Ka ", "").split("\\s+");
-                        float[] col = new float[3];
+    private final LongMap<Pose> poses = new LongMap<>();
+    /** The {@link #size} the cached poses were transformed with. */
+    private float posesSize = Float.NaN;
+    private final Pose tmpPose = new Pose();
+    private final Vec3 tmpVertex = new Vec3();
 
-                        if(val.length != 3) throw new IllegalStateException("'Ka' must be followed with 3 arguments. Required: [r, g, b], found: " + Arrays.toString(val));
-                        for(int i = 0; i < 3; i++){
-                            col[i] = Strings.parseFloat(val[i], 0f);
-                        }
+    public void load(Fi file, @Nullable Fi material){
+        if(material != null) loadMaterials(new WavefrontReader(material.readBytes()));
+        loadObject(new WavefrontReader(file.readBytes()));
+        finishLoad();
+    }
 
-                        Tmp.c1.set(col[0], col[1], col[2]).a(1f);
-                        current.ambientCol = Tmp.c1.rgba8888();
-                        if(!Tmp.c1.equals(Color.white)){
-                            current.hasColor = true;
-                        }
-                    }
+    protected void loadMaterials(WavefrontReader reader){
+        Material current = null;
+        while(reader.nextLine()){
+            if(reader.keyword("newmtl")){
+                current = material(reader.rest());
+            }else if(current == null){
+                continue;
+            }
 
-                    if(line.startsWith("Kd ") && current != null){
-                        String[] val = line.replaceFirst("Kd ", "").split("\\s+");
-                        float[] col = new float[3];
+            if(reader.keyword("Ka")){
+                current.ambientCol = color(reader);
+                if(!Tmp.c1.equals(Color.white)) current.hasColor = true;
+            }else if(reader.keyword("Kd")){
+                current.diffuseCol = color(reader);
+                if(!Tmp.c1.equals(Color.white)) current.hasColor = true;
+            }else if(reader.keyword("Ke")){
+                current.emitCol = color(reader);
+                if(!Tmp.c1.equals(Color.black)) current.hasColor = true;
+            }else if(reader.keyword("map_Kd")){
+                diffuseTexture(current, reader.rest());
+            }else if(reader.keyword("map_Ke")){
+                emitTexture(current, reader.rest());
+            }
+        }
+    }
 
-                        if(val.length != 3) throw new IllegalStateException("'Kd' must be followed with 3 arguments. Required: [r, g, b], found: " + Arrays.toString(val));
-                        for(int i = 0; i < 3; i++){
-                            col[i] = Strings.parseFloat(val[i], 0f);
-                        }
+    protected void loadObject(WavefrontReader reader){
+        IntSeq v = new IntSeq(), vt = new IntSeq(), vn = new IntSeq();
+        Material current = null;
 
-                        Tmp.c1.set(col[0], col[1], col[2]).a(1f);
-                        current.diffuseCol = Tmp.c1.rgba8888();
-                        if(!Tmp.c1.equals(Color.white)){
-                            current.hasColor = true;
-                        }
+        while(reader.nextLine()){
+            if(reader.keyword("v")){
+                addVertex(reader.nextFloat(0f), reader.nextFloat(0f), reader.nextFloat(0f));
+            }else if(reader.keyword("vt")){
+                addUV(reader.nextFloat(0f), reader.nextFloat(0f));
+            }else if(reader.keyword("vn")){
+                addNormal(reader.nextFloat(0f), reader.nextFloat(0f), reader.nextFloat(0f));
+            }else if(reader.keyword("usemtl")){
+                String key = reader.rest();
+                if(hasMaterial) current = materials.get(key);
+            }else if(reader.keyword("f")){
+                v.clear();
+                vt.clear();
+                vn.clear();
+
+                while(reader.hasNext()){
+                    int t = 0, n = 0;
+                    v.add(reader.nextInt(1) - 1);
+                    if(reader.slash()){
+                        t = reader.nextInt(1) - 1;
+                        if(reader.slash()) n = reader.nextInt(1) - 1;
                     }
 
-                    if(line.startsWith("Ke ") && current != null){
-                        String[] val = line.replaceFirst("Ke ", "").split("\\s+");
-                        float[] col = new float[3];
+                    vt.add(t);
+                    vn.add(n);
+                    reader.skipToken();
+                }
 
-                        if(val.length != 3) throw new IllegalStateException("'Ke' must be followed with 3 arguments. Required: [r, g, b], found: " + Arrays.toString(val));
-                        for(int i = 0; i < 3; i++){
-                            col[i] = Strings.parseFloat(val[i], 0f);
-                        }
+                addFace(v.toArray(), vt.toArray(), vn.toArray(), current);
+            }
+        }
+    }
 
-                        Tmp.c1.set(col[0], col[1], col[2]).a(1f);
-                        current.emitCol = Tmp.c1.rgba8888();
-                        if(!Tmp.c1.equals(Color.black)){
-                            current.hasColor = true;
-                        }
-                    }
+    protected int color(WavefrontReader reader){
+        return Tmp.c1.set(reader.nextFloat(0f), reader.nextFloat(0f), reader.nextFloat(0f), 1f).rgba8888();
+    }
 
-                    if(line.contains("map_Kd ") && current != null){
-                        hasTexture = true;
-                        hasMaterialTex = true;
-                        if(canLoadTex()){
-                            String n = line.replaceFirst("map_Kd ", "");
-                            current.diffTex = Core.atlas.find("unity-" + n);
-                        }
-                    }
+    /** Registers a new material. */
+    public Material material(String name){
+        Material material = new Material();
+        material.name = name;
 
-                    if(line.contains("map_Ke ") && current != null && canLoadTex()){
-                        String n = line.replaceFirst("map_Ke ", "");
-                        current.emitTex = Core.atlas.find("unity-" + n);
-                    }
-                }catch(Throwable e){
-                    throw new RuntimeException(e);
-                }
-            }
-        }
+        if(materials == null) materials = new ObjectMap<>();
+        materials.put(name, material);
+        hasMaterial = true;
 
-        BufferedReader reader = file.reader(64);
-        Material current = null;
-        while(true){
-            try{
-                String line = reader.readLine();
-                if(line == null) break;
-
-                if(line.contains("v ")){
-                    String[] pos = line.replaceFirst("v ", "").split("\\s+");
-                    if(pos.length != 3) throw new IllegalStateException("'v' must define all 3 vector points");
-
-                    float[] vec = new float[3];    
-                    for(int i = 0; i < 3; i++){
-                        vec[i] = Strings.parseFloat(pos[i], 0f);
-                    }
+        return material;
+    }
 
-                    drawnVertices.add(new Vertex(vec[0], vec[1], vec[2]));
-                    vertices.add(new Vec3(vec[0], vec[1], vec[2]));
-                }
+    public void diffuseTexture(Material material, String name){
+        hasTexture = true;
+        hasMaterialTex = true;
 
-                if(line.contains("vt ")){
-                    if(!hasTexture) hasTexture = true;
-                    String[] pos = line.replaceFirst("vt ", "").split("\\s+");
-                    Vec2 uv = new Vec2();
-                    uv.x = Strings.parseFloat(pos[0], 0f);
-                    uv.y = Strings.parseFloat(pos[1], 0f);
-                    uvs.add(uv);
-                }
+        material.diffTexName = name;
+        if(canLoadTex()) material.diffTex = Core.atlas.find("unity-" + name);
+    }
 
-                if(line.contains("vn ")){
-                    if(!hasNormal) hasNormal = true;
-                    String[] pos = line.replaceFirst("vn ", "").split("\\s+");
-                    if(pos.length != 3) throw new IllegalStateException("'v' must define all 3 vector points");
+    public void emitTexture(Material material, String name){
+        material.emitTexName = name;
+        if(canLoadTex()) material.emitTex = Core.atlas.find("unity-" + name);
+    }
 
-                    float[] vec = new float[3];
-                    for(int i = 0; i < 3; i++){
-                        vec[i] = Strings.parseFloat(pos[i], 0f);
-                    }
+    public void addVertex(float x, float y, float z){
+        drawnVertices.add(new Vertex(x, y, z));
+        vertices.add(new Vec3(x, y, z));
+    }
 
-                    drawnNormals.add(new Vec3(vec[0], vec[1], vec[2]));
-                    normals.add(new Vec3(vec[0], vec[1], vec[2]));
-                }
+    public void addUV(float u, float v){
+        hasTexture = true;
+        uvs.add(new Vec2(u, v));
+    }
 
-                if(hasMaterial && line.contains("usemtl ")){
-                    String key = line.replace("usemtl ", "");
-                    current = materials.get(key);
-                }
+    public void addNormal(float x, float y, float z){
+        hasNormal = true;
+        drawnNormals.add(new Vec3(x, y, z));
+        normals.add(new Vec3(x, y, z));
+    }
 
-                if(line.contains("f ")){
-                    String[] segments = line.replace("f ", "").split("\\s+");
-                    Face face = new Face();
-                    face.verts = new Vertex[segments.length];
-                    if(hasNormal) face.normal = new Vec3[segments.length];
-                    if(hasTexture) face.vertexTexture = new Vec2[segments.length];
-                    if(hasMaterial && current != null) face.mat = current;
-                    if(segments.length != 4) odd = true;
-
-                    int[] i = {0};
-                    for(String segment : segments){
-                        String[] faceIndex = segment.split("/");
-                        //Unity.print(faceIndex.length + "");
-                        Vertex vert = drawnVertices.get(getFaceVal(faceIndex[0]));
-                        face.verts[i[0]] = vert;
-                        if(hasNormal){
-                            face.normal[i[0]] = drawnNormals.get(getFaceVal(faceIndex[2]));
-                        }
-                        if(hasTexture){
-                            face.vertexTexture[i[0]] = uvs.get(getFaceVal(faceIndex[1]));
-                        }
-
-                        for(int sign : Mathf.signs){
-                            Vertex v = drawnVertices.get(faceVertIndex(segments[Mathf.mod(sign + i[0], segments.length)]));
-
-                            if(!face.verts[i[0]].neighbors.contains(v)){
-                                face.verts[i[0]].neighbors.add(v);
-                            }
-                        }
-                        //faceTmp.shadingValue += (Math.abs(vert.source.x) + Math.abs(vert.source.y) + Math.abs(vert.source.z)) / 3f;
-                        //faceTmp.shadingValue += vert.source.len();
-                        face.size += 6;
-                        i[0]++;
-                    }
+    /**
+     * Adds a face made of the given zero-based vertex, texture coordinate, and normal indices.
+     * @param mat The face's material, ignored if this object has no materials.
+     */
+    public void addFace(int[] vertIndices, int[] texIndices, int[] normalIndices, @Nullable Material mat){
+        int len = vertIndices.length;
+
+        Face face = new Face();
+        face.verts = new Vertex[len];
+        face.indices = vertIndices;
+        face.texIndices = texIndices;
+        face.normalIndices = normalIndices;
+        if(hasNormal) face.normal = new Vec3[len];
+        if(hasTexture) face.vertexTexture = new Vec2[len];
+        if(hasMaterial && mat != null) face.mat = mat;
+        if(len != 4) odd = true;
+
+        for(int i = 0; i < len; i++){
+            Vertex vert = face.verts[i] = drawnVertices.get(vertIndices[i]);
+            if(hasNormal) face.normal[i] = drawnNormals.get(normalIndices[i]);
+            if(hasTexture) face.vertexTexture[i] = uvs.get(texIndices[i]);
+
+            for(int sign : Mathf.signs){
+                Vertex v = drawnVertices.get(vertIndices[Mathf.mod(sign + i, len)]);
+                if(!vert.neighbors.contains(v)) vert.neighbors.add(v);
+            }
 
-                    face.data = new float[face.size];
-
-                    i[0] = 0;
-                    for(Vertex vt : face.verts){
-                        vt.neighbors.each(vs -> {
-                            for(Vertex vc : face.verts){
-                                if(vs == vc) return true;
-                            }
-
-                            return false;
-                        }, vs -> {
-                            face.shadingValue += vt.source.dst(vs.source);
-                            i[0]++;
-                        });
-                        //i[0]++;
-                    }
+            face.size += 6;
+        }
 
-                    face.shadingValue /= i[0];
-                    faces.add(face);
+        face.data = new float[face.size];
+        face.drawer = face::draw;
+
+        int count = 0;
+        for(Vertex vt : face.verts){
+            for(Vertex vs : vt.neighbors){
+                for(Vertex vc : face.verts){
+                    if(vs == vc){
+                        face.shadingValue += vt.source.dst(vs.source);
+                        count++;
+                        break;
+                    }
                 }
-            }catch(Throwable e){
-                throw new RuntimeException(e);
             }
         }
+
+        face.shadingValue /= count;
+        faces.add(face);
+    }
+
+    /** Called once all materials, vertices, and faces have been added. */
+    public void finishLoad(){
         if(canLoadTex()){
             texture = Core.atlas.find("unity-" + textureName + "-tex");
         }
@@ -261,29 +243,21 @@ public class WavefrontObject{
 
     public void draw(float x, float y, float rX, float rY, float rZ, Cons<Vec3> cons){
         float oz = Draw.z();
-        for(int i = 0; i < drawnVertices.size; i++){
-            Vec3 v = drawnVertices.get(i).source;
-            v.set(vertices.get(i));
-            if(cons != null) cons.get(v);
-            v.scl(defaultScl * size).rotate(Vec3.X, rX).rotate(Vec3.Y, rY).rotate(Vec3.Z, rZ);
-            float depth = Math.max(0f, (perspectiveDistance + v.z) / perspectiveDistance);
-            v.scl(depth);
-            
-            v.add(x, y, 0f);
-            if(i <= drawnNormals.size - 1){
-                drawnNormals.get(i).set(normals.get(i)).rotate(Vec3.X, rX).rotate(Vec3.Y, rY).rotate(Vec3.Z, rZ);
-            }
+
+        Pose pose = cons == null && cacheStep > 0f ? cached(rX, rY, rZ) : transform(rX, rY, rZ, cons, tmpPose);
+        float[] verts = pose.vertices, norms = pose.normals;
+        for(int i = 0, n = drawnVertices.size; i < n; i++){
+            drawnVertices.get(i).source.set(verts[i * 3] + x, verts[i * 3 + 1] + y, verts[i * 3 + 2]);
         }
 
-        for(Face face : faces){
-            indexerA = 0;
-            indexerZ = 0f;
-            for(Vertex vert : face.verts){
-                indexerZ += vert.source.z;
-                indexerA++;
-            }
-            indexerZ /= indexerA;
-            float z = (indexerZ * zScale) + drawLayer;
+        for(int i = 0, n = drawnNormals.size; i < n; i++){
+            drawnNormals.get(i).set(norms[i * 3], norms[i * 3 + 1], norms[i * 3 + 2]);
+        }
+
+        long[] order = pose.order;
+        for(long key : order){
+            Face face = faces.get((int)key);
+            float z = (pose.depths[(int)key] * zScale) + drawLayer;
             Draw.z(z);
 
             if(hasNormal){
@@ -305,25 +279,125 @@ public class WavefrontObject{
             if(!odd || face.verts.length == 4){
                 face.draw();
             }else{
-                Draw.draw(z, face::draw);
+                Draw.draw(z, face.drawer);
             }
         }
         Draw.reset();
         Draw.z(oz);
     }
 
+    /** @return The pose at the given rotation quantised to {@link #cacheStep} degrees, transforming it if not yet cached. */
+    protected Pose cached(float rX, float rY, float rZ){
+        int steps = (int)(360f / cacheStep);
+        long qx = Mathf.mod(Math.round(rX / cacheStep), steps), qy = Mathf.mod(Math.round(rY / cacheStep), steps), qz = Mathf.mod(Math.round(rZ / cacheStep), steps);
+        long key = (qx * steps + qy) * steps + qz;
+
+        // Poses are scaled by the size, so changing it invalidates every cached pose.
+        if(posesSize != size){
+            poses.clear();
+            posesSize = size;
+        }
+
+        Pose pose = poses.get(key);
+        if(pose == null){
+            if(poses.size >= cacheSize) poses.clear();
+            poses.put(key, pose = transform(qx * cacheStep, qy * cacheStep, qz * cacheStep, null, new Pose()));
+        }
+
+        return pose;
+    }
+
+    /**
+     * Transforms every vertex and normal through a single rotation matrix, equivalent to rotating around the X, Y, then Z
+     * axes, and orders faces back to front by their average depth.
+     */
+    protected Pose transform(float rX, float rY, float rZ, Cons<Vec3> cons, Pose out){
+        int vertCount = vertices.size, normCount = normals.size, faceCount = faces.size;
+        if(out.vertices.length != vertCount * 3) out.vertices = new float[vertCount * 3];
+        if(out.normals.length != normCount * 3) out.normals = new float[normCount * 3];
+        if(out.order.length != faceCount){
+            out.order = new long[faceCount];
+            out.depths = new float[faceCount];
+        }
+
+        float
+            ca = Mathf.cosDeg(rX), sa = Mathf.sinDeg(rX),
+            cb = Mathf.cosDeg(rY), sb = Mathf.sinDeg(rY),
+            cc = Mathf.cosDeg(rZ), sc = Mathf.sinDeg(rZ);
+
+        float
+            m00 = cc * cb, m01 = cc * sb * sa - sc * ca, m02 = cc * sb * ca + sc * sa,
+            m10 = sc * cb, m11 = sc * sb * sa + cc * ca, m12 = sc * sb * ca - cc * sa,
+            m20 = -sb, m21 = cb * sa, m22 = cb * ca;
+
+        float scl = defaultScl * size;
+        float[] verts = out.vertices;
+        for(int i = 0; i < vertCount; i++){
+            Vec3 src = vertices.get(i);
+            float vx = src.x, vy = src.y, vz = src.z;
+            if(cons != null){
+                cons.get(tmpVertex.set(vx, vy, vz));
+                vx = tmpVertex.x;
+                vy = tmpVertex.y;
+                vz = tmpVertex.z;
+            }
+
+            vx *= scl;
+            vy *= scl;
+            vz *= scl;
+
+            float
+                tx = m00 * vx + m01 * vy + m02 * vz,
+                ty = m10 * vx + m11 * vy + m12 * vz,
+                tz = m20 * vx + m21 * vy + m22 * vz;
+
+            float depth = Math.max(0f, (perspectiveDistance + tz) / perspectiveDistance);
+            verts[i * 3] = tx * depth;
+            verts[i * 3 + 1] = ty * depth;
+            verts[i * 3 + 2] = tz * depth;
+        }
+
+        float[] norms = out.normals;
+        for(int i = 0; i < normCount; i++){
+            Vec3 src = normals.get(i);
+            norms[i * 3] = m00 * src.x + m01 * src.y + m02 * src.z;
+            norms[i * 3 + 1] = m10 * src.x + m11 * src.y + m12 * src.z;
+            norms[i * 3 + 2] = m20 * src.x + m21 * src.y + m22 * src.z;
+        }
+
+        for(int i = 0; i < faceCount; i++){
+            int[] indices = faces.get(i).indices;
+
+            float z = 0f;
+            for(int index : indices) z += verts[index * 3 + 2];
+            z /= indices.length;
+
+            out.depths[i] = z;
+            out.order[i] = ((long)sortable(z) << 32) | i;
+        }
+
+        Arrays.sort(out.order);
+        return out;
+    }
+
+    /** @return An int whose signed order matches the float's order, for packing depths into sort keys. */
+    protected static int sortable(float value){
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
     protected void normalAngleDraw(Face face){
         if(!hasNormal){
             Draw.color(lightColor);
             return;
         }
         Vec3 tmp = Tmp.v31.setZero();
-        indexerA = 0;
+        int count = 0;
         for(Vec3 n : face.normal){
             tmp.add(n);
-            indexerA++;
+            count++;
         }
-        tmp.scl(1f / indexerA);
+        tmp.scl(1f / count);
 
         boolean matB = face.mat != null && face.mat.hasColor;
         if(matB){
@@ -341,35 +415,41 @@ public class WavefrontObject{
     }
 
     protected void zMedianDraw(Face face){
-        indexerA = 0;
-        indexerZ = 0;
+        int count = 0;
+        float z = 0f;
         for(Vertex vert : face.verts){
-            indexerZ += -vert.source.z;
-            indexerA++;
+            z += -vert.source.z;
+            count++;
         }
-        indexerZ /= indexerA;
+        z /= count;
 
-        Tmp.c1.set(lightColor).lerp(shadeColor, Mathf.clamp(indexerZ / face.shadingValue / (shadingSmoothness * defaultScl)));
+        Tmp.c1.set(lightColor).lerp(shadeColor, Mathf.clamp(z / face.shadingValue / (shadingSmoothness * defaultScl)));
         Draw.color(Tmp.c1);
     }
 
     protected void zDistanceDraw(Face face){
-        indexerA = 0;
-        indexerZ = 0;
+        int count = 0;
+        float z = 0f;
         for(Vertex vert : face.verts){
-            vert.neighbors.each(vertex -> {
+            for(int i = 0; i < vert.neighbors.size; i++){
+                Vertex vertex = vert.neighbors.get(i);
+                boolean shared = false;
                 for(Vertex v : face.verts){
-                    if(v == vertex) return true;
+                    if(v == vertex){
+                        shared = true;
+                        break;
+                    }
+                }
+
+                if(shared){
+                    z += Math.abs(vertex.source.z - vert.source.z) / face.shadingValue / (shadingSmoothness * defaultScl);
+                    count++;
                 }
-                return false;
-            }, vertex -> {
-                indexerZ += Math.abs(vertex.source.z - vert.source.z) / face.shadingValue / (shadingSmoothness * defaultScl);
-                indexerA++;
-            });
+            }
         }
-        indexerZ /= indexerA;
+        z /= count;
 
-        Tmp.c1.set(lightColor).lerp(shadeColor, Mathf.clamp(indexerZ));
+        Tmp.c1.set(lightColor).lerp(shadeColor, Mathf.clamp(z));
         Draw.color(Tmp.c1);
     }
 
@@ -400,14 +480,6 @@ public class WavefrontObject{
         }
     }
 
-    protected static int faceVertIndex(String node){
-        return getFaceVal(node.split("/")[0]);
-    }
-
-    protected static int getFaceVal(String value){
-        return Strings.parseInt(value, 1) - 1;
-    }
-
     @Override
     public String toString(){
         return "WavefrontObject{" +
@@ -420,11 +492,15 @@ public class WavefrontObject{
     public class Face{
         public Material mat;
         public Vertex[] verts;
+        /** Indices of {@link #verts} in the object's vertex list, and of this face's texture coordinates and normals. */
+        public int[] indices, texIndices, normalIndices;
         public Vec3[] normal;
         public Vec2[] vertexTexture;
         public float shadingValue = 0f;
         public int size = 0;
         public float[] data;
+        /** {@link #draw()}, created once so that deferred draws don't allocate a method reference every frame. */
+        public Runnable drawer;
 
         protected void draw(){
             AtlasRegion textureB = texture, region = Core.atlas.white();
@@ -454,11 +530,19 @@ public class WavefrontObject{
         }
     }
 
+    /** Vertices and normals transformed at a rotation, relative to the draw position, and the back to front face order. */
+    protected static class Pose{
+        public float[] vertices = {}, normals = {}, depths = {};
+        /** Face indices in the low 32 bits, keyed by depth in the high 32 bits. */
+        public long[] order = {};
+    }
+
     public static class Material{
         public String name;
         public int ambientCol = 0xffffffff, diffuseCol = 0xffffffff, emitCol = 0x00000000;
         public boolean hasColor = false;
         public AtlasRegion diffTex, emitTex;
+        public @Nullable String diffTexName, emitTexName;
     }
 
     public enum ShadingType{
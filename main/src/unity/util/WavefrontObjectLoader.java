@@ -17,15 +17,19 @@ public class WavefrontObjectLoader extends AsynchronousAssetLoader<WavefrontObje
 
     @Override
     public void loadAsync(AssetManager assetManager, String fileName, Fi file, WavefrontObjectParameters parameter){
+        object = parameter != null && parameter.object != null ? parameter.object : new WavefrontObject();
+
         Fi material = file.parent().child(file.nameWithoutExtension() + ".mtl");
         if(!material.exists()) material = null;
 
-        if(parameter != null && parameter.object != null){
-            (object = parameter.object).load(file, material);
-        }else{
-            object = new WavefrontObject();
-            object.load(file, material);
+        // Prefer the precompiled object baked by the tools module, unless the sources were edited since.
+        Fi compact = file.sibling(file.nameWithoutExtension() + "." + WavefrontCodec.extension);
+        if(Utils.upToDate(compact, file, material)){
+            WavefrontCodec.read(compact, object);
+            return;
         }
+
+        object.load(file, material);
     }
 
     @Override
@@ -0,0 +1,164 @@
+package unity.util;
+
+/**
+ * Byte-level line tokenizer for Wavefront {@code .obj} and {@code .mtl} files. Keywords, numbers, and face index tuples are
+ * read straight off the raw bytes without creating intermediate strings or running regular expressions.
+ */
+public class WavefrontReader{
+    private static final double[] powers = new double[19];
+
+    static{
+        powers[0] = 1d;
+        for(int i = 1; i < powers.length; i++) powers[i] = powers[i - 1] * 10d;
+    }
+
+    private final byte[] data;
+    private int pos, lineEnd, next;
+
+    public WavefrontReader(byte[] data){
+        this.data = data;
+    }
+
+    /**
+     * Advances to the next line that isn't empty or a comment.
+     * @return Whether there was such a line.
+     */
+    public boolean nextLine(){
+        while(next < data.length){
+            pos = next;
+            lineEnd = pos;
+            while(lineEnd < data.length && data[lineEnd] != '\n' && data[lineEnd] != '\r') lineEnd++;
+
+            next = lineEnd;
+            while(next < data.length && (data[next] == '\n' || data[next] == '\r')) next++;
+
+            skipSpaces();
+            if(pos < lineEnd && data[pos] != '#') return true;
+        }
+
+        return false;
+    }
+
+    /** Consumes the given keyword if the current line starts with it, followed by whitespace or the line end. */
+    public boolean keyword(String keyword){
+        int len = keyword.length();
+        if(pos + len > lineEnd) return false;
+
+        for(int i = 0; i < len; i++){
+            if(data[pos + i] != keyword.charAt(i)) return false;
+        }
+
+        if(pos + len < lineEnd && !space(data[pos + len])) return false;
+
+        pos += len;
+        skipSpaces();
+        return true;
+    }
+
+    /** @return Whether the current line has another token. */
+    public boolean hasNext(){
+        skipSpaces();
+        return pos < lineEnd;
+    }
+
+    /** @return Whether the next character is a {@code /}, consuming it if so. */
+    public boolean slash(){
+        if(pos < lineEnd && data[pos] == '/'){
+            pos++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /** @return The next decimal integer, or {@code def} if there is none at the current position. */
+    public int nextInt(int def){
+        boolean negative = false;
+        if(pos < lineEnd && (data[pos] == '-' || data[pos] == '+')) negative = data[pos++] == '-';
+
+        int start = pos, value = 0;
+        while(pos < lineEnd && digit(data[pos])) value = value * 10 + (data[pos++] - '0');
+
+        return pos == start ? def : negative ? -value : value;
+    }
+
+    /** @return The next decimal number, or {@code def} if there is none at the current position. */
+    public float nextFloat(float def){
+        skipSpaces();
+
+        boolean negative = false;
+        if(pos < lineEnd && (data[pos] == '-' || data[pos] == '+')) negative = data[pos++] == '-';
+
+        long mantissa = 0;
+        int digits = 0, scale = 0, start = pos;
+        while(pos < lineEnd && digit(data[pos])){
+            if(digits < 18){
+                mantissa = mantissa * 10 + (data[pos] - '0');
+                digits++;
+            }else{
+                scale++;
+            }
+            pos++;
+        }
+
+        if(pos < lineEnd && data[pos] == '.'){
+            pos++;
+            while(pos < lineEnd && digit(data[pos])){
+                if(digits < 18){
+                    mantissa = mantissa * 10 + (data[pos] - '0');
+                    digits++;
+                    scale--;
+                }
+                pos++;
+            }
+        }
+
+        if(pos == start || (pos == start + 1 && data[start] == '.')){
+            skipToken();
+            return def;
+        }
+
+        if(pos < lineEnd && (data[pos] == 'e' || data[pos] == 'E')){
+            pos++;
+            scale += nextInt(0);
+        }
+
+        double value = mantissa;
+        if(scale > 0){
+            value *= scale < powers.length ? powers[scale] : Math.pow(10d, scale);
+        }else if(scale < 0){
+            value /= -scale < powers.length ? powers[-scale] : Math.pow(10d, -scale);
+        }
+
+        skipToken();
+        return (float)(negative ? -value : value);
+    }
+
+    /** @return The rest of the current line, with surrounding whitespace trimmed. */
+    public String rest(){
+        skipSpaces();
+
+        int end = lineEnd;
+        while(end > pos && space(data[end - 1])) end--;
+
+        String value = new String(data, pos, end - pos);
+        pos = lineEnd;
+        return value;
+    }
+
+    void skipToken(){
+        while(pos < lineEnd && !space(data[pos])) pos++;
+    }
+
+    void skipSpaces(){
+        while(pos < lineEnd && space(data[pos])) pos++;
+    }
+
+    static boolean space(byte b){
+        return b == ' ' || b == '\t';
+    }
+
+    static boolean digit(byte b){
+        return b >= '0' && b <= '9';
+    }
+}
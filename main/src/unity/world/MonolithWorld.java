@@ -9,24 +9,53 @@ import mindustry.ai.*;
 import mindustry.core.*;
 import mindustry.game.EventType.*;
 import mindustry.world.*;
+import mindustry.world.meta.*;
 import unity.gen.*;
 import unity.mod.*;
 
 import static mindustry.Vars.*;
 
 /**
- * Additional class similar to {@link BlockIndexer} to index {@linkplain Faction#monolith monolith} blocks.
+ * Additional class similar to {@link BlockIndexer} to index {@linkplain Faction#monolith monolith} blocks. Each chunk stores
+ * its monolith tiles as a bitset and keeps per-{@link Faction} and per-{@link BlockFlag} counters, so that tile changes are
+ * indexed in O(1). Chunks are further summarized in a mip-pyramid of monolith tile counts and bounding boxes, which
+ * lets range and nearest queries skip empty regions entirely.
  * @author GlennFolker
  */
 //TODO this probably would be better off as a universal world context binding, rather than just monolith.
 public class MonolithWorld{
     public static final int chunkSize = 10;
+    /** Amount of {@code long} words needed to store one bit per tile in a chunk. */
+    public static final int chunkWords = (chunkSize * chunkSize + 63) >>> 6;
 
-    private Chunk[] chunks;
-    private int width;
+    private Chunk[] chunks = {};
+    /** Width and height of the world, in chunks. */
+    private int width, height;
 
-    private static float lastPriority;
+    /** Maps block IDs to their {@link Faction} ordinal, offset by 1. {@code 0} means no faction. */
+    private byte[] blockFactions = {};
+    /** Maps block IDs to a bitmask of their {@link BlockFlag} ordinals. */
+    private int[] blockFlags = {};
+
+    /** The last indexed faction of each tile, so that counters can be decremented without looking up the old block. */
+    private byte[] tileFactions = {};
+    /** The last indexed flags of each tile. Only building centers have flags. */
+    private int[] tileFlags = {};
+
+    /** Pyramid levels; level {@code 0} is per-chunk, and every next level merges 2x2 cells of the previous one. */
+    private int levels;
+    private int[] levelWidths = {}, levelHeights = {};
+    /** Monolith tile counts per pyramid cell. */
+    private int[][] levelCounts = {};
+    /** Monolith tile bounding boxes per pyramid cell, stored as {@code minX, minY, maxX, maxY} in tile coordinates. */
+    private int[][] levelBounds = {};
+    /** Per-level scratch buffers used to visit child cells in order of distance. */
+    private float[][] childDsts = {};
+    private int[][] childCells = {};
+
+    private static float lastPriority, lastDst;
     private static Chunk lastChunk;
+    private static Tile lastTile;
 
     public MonolithWorld(){
         Events.on(WorldLoadEvent.class, e -> reload());
@@ -34,11 +63,25 @@ public class MonolithWorld{
     }
 
     public void reload(){
-        width = Mathf.ceilPositive(world.width() / (float)chunkSize) * chunkSize;
-        int h = Mathf.ceilPositive(world.height() / (float)chunkSize) * chunkSize;
+        Seq<Block> blocks = content.blocks();
+        blockFactions = new byte[blocks.size];
+        blockFlags = new int[blocks.size];
+        for(Block block : blocks){
+            Faction faction = FactionMeta.map(block);
+            blockFactions[block.id] = (byte)(faction == null ? 0 : faction.ordinal() + 1);
+
+            int mask = 0;
+            for(BlockFlag flag : BlockFlag.all){
+                if(block.flags.contains(flag)) mask |= 1 << flag.ordinal();
+            }
+            blockFlags[block.id] = mask;
+        }
+
+        width = (world.width() + chunkSize - 1) / chunkSize;
+        height = (world.height() + chunkSize - 1) / chunkSize;
 
-        chunks = new Chunk[width * h];
-        for(int y = 0; y < h; y++){
+        chunks = new Chunk[width * height];
+        for(int y = 0; y < height; y++){
             for(int x = 0; x < width; x++){
                 chunks[x + y * width] = new Chunk(
                     x * chunkSize, y * chunkSize,
@@ -48,16 +91,149 @@ public class MonolithWorld{
             }
         }
 
-        for(Chunk chunk : chunks) chunk.updateAll();
+        levels = 0;
+        tileFactions = new byte[world.width() * world.height()];
+        tileFlags = new int[world.width() * world.height()];
+        for(Tile tile : world.tiles) changed(tile);
+
+        buildPyramid();
+    }
+
+    protected void buildPyramid(){
+        int count = 1;
+        for(int w = width, h = height; w > 1 || h > 1; w = (w + 1) / 2, h = (h + 1) / 2) count++;
+
+        levelWidths = new int[count];
+        levelHeights = new int[count];
+        levelCounts = new int[count][];
+        levelBounds = new int[count][];
+        childDsts = new float[count][4];
+        childCells = new int[count][4];
+
+        for(int l = 0, w = width, h = height; l < count; l++, w = (w + 1) / 2, h = (h + 1) / 2){
+            levelWidths[l] = w;
+            levelHeights[l] = h;
+            levelCounts[l] = new int[w * h];
+            levelBounds[l] = new int[w * h * 4];
+        }
+
+        levels = count;
+        for(int cy = 0; cy < height; cy++){
+            for(int cx = 0; cx < width; cx++) updateCell(cx, cy);
+        }
+
+        for(int l = 1; l < levels; l++){
+            for(int cy = 0; cy < levelHeights[l]; cy++){
+                for(int cx = 0; cx < levelWidths[l]; cx++) mergeCell(l, cx, cy);
+            }
+        }
+    }
+
+    /** Copies a chunk's monolith summary into pyramid level {@code 0}. */
+    protected void updateCell(int cx, int cy){
+        int index = cx + cy * width;
+        Chunk chunk = chunks[index];
+
+        int count = levelCounts[0][index] = chunk.count(Faction.monolith);
+        if(count > 0){
+            int[] bounds = levelBounds[0];
+            bounds[index * 4] = chunk.minX;
+            bounds[index * 4 + 1] = chunk.minY;
+            bounds[index * 4 + 2] = chunk.maxX;
+            bounds[index * 4 + 3] = chunk.maxY;
+        }
+    }
+
+    /** Recalculates a pyramid cell from its (up to) 4 children in the level below. */
+    protected void mergeCell(int level, int cx, int cy){
+        int cw = levelWidths[level - 1], ch = levelHeights[level - 1];
+        int[] counts = levelCounts[level - 1], bounds = levelBounds[level - 1];
+
+        int count = 0, minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for(int y = cy * 2, ey = Math.min(y + 2, ch); y < ey; y++){
+            for(int x = cx * 2, ex = Math.min(x + 2, cw); x < ex; x++){
+                int child = x + y * cw;
+                if(counts[child] == 0) continue;
+
+                count += counts[child];
+                minX = Math.min(minX, bounds[child * 4]);
+                minY = Math.min(minY, bounds[child * 4 + 1]);
+                maxX = Math.max(maxX, bounds[child * 4 + 2]);
+                maxY = Math.max(maxY, bounds[child * 4 + 3]);
+            }
+        }
+
+        int index = cx + cy * levelWidths[level];
+        levelCounts[level][index] = count;
+
+        int[] out = levelBounds[level];
+        out[index * 4] = minX;
+        out[index * 4 + 1] = minY;
+        out[index * 4 + 2] = maxX;
+        out[index * 4 + 3] = maxY;
+    }
+
+    /** Propagates a chunk's monolith summary change up to the root of the pyramid, in O(log chunks). */
+    protected void propagate(Chunk chunk){
+        if(levels == 0) return;
+
+        int cx = chunk.x / chunkSize, cy = chunk.y / chunkSize;
+        updateCell(cx, cy);
+        for(int l = 1; l < levels; l++){
+            cx >>= 1;
+            cy >>= 1;
+            mergeCell(l, cx, cy);
+        }
+    }
+
+    /** @return The squared distance from the given tile-space point to a pyramid cell's bounding box. */
+    protected float cellDst2(int level, int index, float tx, float ty){
+        int[] bounds = levelBounds[level];
+        float
+            dx = Math.max(Math.max(bounds[index * 4] - tx, tx - bounds[index * 4 + 2]), 0f),
+            dy = Math.max(Math.max(bounds[index * 4 + 1] - ty, ty - bounds[index * 4 + 3]), 0f);
+
+        return dx * dx + dy * dy;
     }
 
     public void changed(Tile tile){
-        Chunk chunk = getChunk(tile.x, tile.y);
-        if(chunk != null) chunk.update(tile);
+        Chunk chunk;
+        if(tile == null || (chunk = getChunk(tile.x, tile.y)) == null) return;
+
+        int index = tile.x + tile.y * world.width();
+        if(index >= tileFactions.length) return;
+
+        byte faction = blockFactions[((tile.solid() && !tile.synthetic()) ? tile.block() : tile.floor()).id];
+        int flags = (tile.build != null && tile.isCenter()) ? blockFlags[tile.block().id] : 0;
+
+        byte old = tileFactions[index];
+        chunk.set(tile.x - chunk.x, tile.y - chunk.y, old, faction, tileFlags[index], flags);
+        if(old != faction && (old == Faction.monolith.ordinal() + 1 || faction == Faction.monolith.ordinal() + 1)){
+            propagate(chunk);
+        }
+
+        tileFactions[index] = faction;
+        tileFlags[index] = flags;
+    }
+
+    /** @return The width of the world, in chunks. */
+    public int width(){
+        return width;
+    }
+
+    /** @return The height of the world, in chunks. */
+    public int height(){
+        return height;
+    }
+
+    /** @return The chunk at the given chunk coordinates, or {@code null} if out of bounds. */
+    public Chunk chunkAt(int cx, int cy){
+        if(cx < 0 || cy < 0 || cx >= width || cy >= height) return null;
+        return chunks[cx + cy * width];
     }
 
     public Chunk getChunk(int x, int y){
-        if(!world.tiles.in(x, y)) return null;
+        if(!world.tiles.in(x, y) || chunks.length == 0) return null;
         return chunks[x / chunkSize + y / chunkSize * width];
     }
 
@@ -65,30 +241,29 @@ public class MonolithWorld{
         return getChunk(World.toTile(x), World.toTile(y));
     }
 
+    /** Iterates through every chunk overlapping the given rectangle, in tile coordinates. */
     public void intersect(int x, int y, int width, int height, Cons<Chunk> cons){
-        width = Math.min(width, this.width - x);
-        height = Math.min(height, (chunks.length / this.width) - y);
+        int
+            minX = Math.max(Math.floorDiv(x, chunkSize), 0), minY = Math.max(Math.floorDiv(y, chunkSize), 0),
+            maxX = Math.min(Math.floorDiv(x + width - 1, chunkSize), this.width - 1),
+            maxY = Math.min(Math.floorDiv(y + height - 1, chunkSize), this.height - 1);
 
-        int tx = Math.max(x / chunkSize, 0), ty = Math.max(y / chunkSize, 0),
-            tw = Math.min(Mathf.ceilPositive((x + width) / (float)chunkSize) * chunkSize, this.width),
-            th = Math.min(Mathf.ceilPositive((y + height) / (float)chunkSize) * chunkSize, chunks.length / this.width);
-
-        for(int cy = ty; cy < th; cy++){
+        for(int cy = minY; cy <= maxY; cy++){
             int pos = cy * this.width;
-            for(int cx = tx; cx < tw; cx++){
+            for(int cx = minX; cx <= maxX; cx++){
                 cons.get(chunks[cx + pos]);
             }
         }
     }
 
+    /** Finds the chunk containing monolith tiles in range with the highest priority, skipping empty regions. */
     public Chunk nearest(float x, float y, float range, Floatf<Chunk> priority){
         lastChunk = null;
         lastPriority = 0f;
 
-        int r = World.toTile(range) * 2;
-        intersect(World.toTile(x), World.toTile(y), r, r, c -> {
+        eachChunk(x, y, range, c -> {
             float p = priority.get(c);
-            if(lastChunk == null || lastPriority < priority.get(c)){
+            if(lastChunk == null || lastPriority < p){
                 lastPriority = p;
                 lastChunk = c;
             }
@@ -97,23 +272,139 @@ public class MonolithWorld{
         return lastChunk;
     }
 
+    /** Iterates through every chunk whose monolith tiles' bounding box is in range of the given world position. */
+    public void eachChunk(float x, float y, float range, Cons<Chunk> cons){
+        if(levels == 0) return;
+
+        float r = range / tilesize;
+        eachChunk(levels - 1, 0, 0, x / tilesize, y / tilesize, r * r, cons);
+    }
+
+    protected void eachChunk(int level, int cx, int cy, float tx, float ty, float r2, Cons<Chunk> cons){
+        int index = cx + cy * levelWidths[level];
+        if(levelCounts[level][index] == 0 || cellDst2(level, index, tx, ty) > r2) return;
+
+        if(level == 0){
+            cons.get(chunks[index]);
+            return;
+        }
+
+        for(int y = cy * 2, ey = Math.min(y + 2, levelHeights[level - 1]); y < ey; y++){
+            for(int x = cx * 2, ex = Math.min(x + 2, levelWidths[level - 1]); x < ex; x++){
+                eachChunk(level - 1, x, y, tx, ty, r2, cons);
+            }
+        }
+    }
+
+    /** Iterates through every monolith tile in range of the given world position. */
+    public void within(float x, float y, float range, Cons<Tile> cons){
+        float tx = x / tilesize, ty = y / tilesize, r = range / tilesize, r2 = r * r;
+        eachChunk(x, y, range, c -> {
+            long[] bits = c.monolith;
+            for(int i = 0; i < bits.length; i++){
+                long word = bits[i];
+                while(word != 0L){
+                    int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1L;
+
+                    int px = c.x + bit % chunkSize, py = c.y + bit / chunkSize;
+                    if(Mathf.dst2(px, py, tx, ty) <= r2) cons.get(world.tile(px, py));
+                }
+            }
+        });
+    }
+
+    /** @return The closest monolith tile in range of the given world position, or {@code null} if there is none. */
+    public Tile nearestTile(float x, float y, float range){
+        lastTile = null;
+        if(levels == 0) return null;
+
+        float r = range / tilesize;
+        lastDst = r * r;
+
+        nearestTile(levels - 1, 0, 0, x / tilesize, y / tilesize);
+        return lastTile;
+    }
+
+    protected void nearestTile(int level, int cx, int cy, float tx, float ty){
+        int index = cx + cy * levelWidths[level];
+        if(levelCounts[level][index] == 0 || cellDst2(level, index, tx, ty) > lastDst) return;
+
+        if(level == 0){
+            Chunk c = chunks[index];
+            long[] bits = c.monolith;
+            for(int i = 0; i < bits.length; i++){
+                long word = bits[i];
+                while(word != 0L){
+                    int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1L;
+
+                    int px = c.x + bit % chunkSize, py = c.y + bit / chunkSize;
+                    float dst = Mathf.dst2(px, py, tx, ty);
+                    if(dst < lastDst || (lastTile == null && dst <= lastDst)){
+                        lastDst = dst;
+                        lastTile = world.tile(px, py);
+                    }
+                }
+            }
+
+            return;
+        }
+
+        // Visit children closest-first so that farther ones are more likely to get pruned.
+        int cw = levelWidths[level - 1], ch = levelHeights[level - 1], size = 0;
+        float[] dsts = childDsts[level];
+        int[] cells = childCells[level];
+
+        for(int y = cy * 2, ey = Math.min(y + 2, ch); y < ey; y++){
+            for(int x = cx * 2, ex = Math.min(x + 2, cw); x < ex; x++){
+                int child = x + y * cw;
+                if(levelCounts[level - 1][child] == 0) continue;
+
+                float dst = cellDst2(level - 1, child, tx, ty);
+                int i = size++;
+                for(; i > 0 && dsts[i - 1] > dst; i--){
+                    dsts[i] = dsts[i - 1];
+                    cells[i] = cells[i - 1];
+                }
+
+                dsts[i] = dst;
+                cells[i] = child;
+            }
+        }
+
+        for(int i = 0; i < size; i++){
+            nearestTile(level - 1, cells[i] % cw, cells[i] / cw, tx, ty);
+        }
+    }
+
     public static class Chunk{
-        public int x;
-        public int y;
-        public int width;
-        public int height;
+        public final int x;
+        public final int y;
+        public final int width;
+        public final int height;
 
-        public float centerX;
-        public float centerY;
+        public final float centerX;
+        public final float centerY;
 
-        public Seq<Tile> monolithTiles = new Seq<>();
-        public IntSet monolithTilePos = new IntSet();
+        /** Monolith tile membership, one bit per local tile indexed by {@code localX + localY * chunkSize}. */
+        public final long[] monolith = new long[chunkWords];
+        /** Tile counts indexed by {@link Faction#ordinal()}. */
+        public final int[] factions = new int[Faction.all.length];
+        /** Building counts indexed by {@link BlockFlag#ordinal()}. */
+        public final int[] flags = new int[BlockFlag.all.length];
+
+        /** Bounding box of this chunk's monolith tiles, in tile coordinates. Only valid if there is any monolith tile. */
+        public int minX, minY, maxX, maxY;
 
         public Chunk(int x, int y, int width, int height){
             this.x = x;
             this.y = y;
             this.width = width;
             this.height = height;
+
+            centerX = World.unconv(x) + World.unconv(width) / 2f;
+            centerY = World.unconv(y) + World.unconv(height) / 2f;
         }
 
         public boolean within(Position pos){
@@ -121,41 +412,121 @@ public class MonolithWorld{
         }
 
         public boolean within(float x, float y){
+            int tx = World.toTile(x), ty = World.toTile(y);
             return
-                x >= World.unconv(this.x) && x <= World.unconv(width) &&
-                y >= World.unconv(this.y) && y <= World.unconv(height);
+                tx >= this.x && tx < this.x + width &&
+                ty >= this.y && ty < this.y + height;
         }
 
-        public void addMonolithTile(Tile tile){
-            if(monolithTilePos.add(tile.pos())){
-                monolithTiles.add(tile);
+        public int count(Faction faction){
+            return factions[faction.ordinal()];
+        }
+
+        public int count(BlockFlag flag){
+            return flags[flag.ordinal()];
+        }
+
+        /** @return Whether the tile at the given local coordinates is a monolith tile. */
+        public boolean isMonolith(int localX, int localY){
+            int bit = localX + localY * chunkSize;
+            return (monolith[bit >>> 6] & (1L << bit)) != 0L;
+        }
+
+        /** @return A random monolith tile in this chunk, or {@code null} if there is none. */
+        public Tile randomMonolithTile(){
+            int count = count(Faction.monolith);
+            if(count == 0) return null;
+
+            int n = Mathf.random(count - 1);
+            for(int i = 0; i < monolith.length; i++){
+                long word = monolith[i];
+                int bits = Long.bitCount(word);
+
+                if(n < bits){
+                    for(int j = 0; j < n; j++) word &= word - 1L;
+
+                    int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                    return world.tile(x + bit % chunkSize, y + bit / chunkSize);
+                }
+
+                n -= bits;
             }
+
+            return null;
         }
 
-        public void removeMonolithTile(Tile tile){
-            if(monolithTilePos.remove(tile.pos())){
-                monolithTiles.remove(tile);
+        public void eachMonolithTile(Cons<Tile> cons){
+            for(int i = 0; i < monolith.length; i++){
+                long word = monolith[i];
+                while(word != 0L){
+                    int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1L;
+
+                    cons.get(world.tile(x + bit % chunkSize, y + bit / chunkSize));
+                }
             }
         }
 
-        public void update(Tile tile){
-            if(tile == null) return;
-            if(FactionMeta.map((tile.solid() && !tile.synthetic()) ? tile.block() : tile.floor()) == Faction.monolith){
-                addMonolithTile(tile);
-            }else{
-                removeMonolithTile(tile);
+        /** Recalculates the monolith tile bounding box from the bitset. */
+        public void updateBounds(){
+            minX = minY = Integer.MAX_VALUE;
+            maxX = maxY = Integer.MIN_VALUE;
+
+            for(int i = 0; i < monolith.length; i++){
+                long word = monolith[i];
+                while(word != 0L){
+                    int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1L;
+
+                    int tx = x + bit % chunkSize, ty = y + bit / chunkSize;
+                    minX = Math.min(minX, tx);
+                    minY = Math.min(minY, ty);
+                    maxX = Math.max(maxX, tx);
+                    maxY = Math.max(maxY, ty);
+                }
             }
         }
 
-        public void updateAll(){
-            centerX = World.unconv(x) + World.unconv(width) / 2f;
-            centerY = World.unconv(y) + World.unconv(height) / 2f;
+        /**
+         * Replaces the indexed state of a tile in this chunk.
+         * @param oldFaction The previous faction ordinal offset by 1, or {@code 0} if none.
+         * @param newFaction The current faction ordinal offset by 1, or {@code 0} if none.
+         * @param oldFlags   The previous {@link BlockFlag} bitmask.
+         * @param newFlags   The current {@link BlockFlag} bitmask.
+         */
+        public void set(int localX, int localY, int oldFaction, int newFaction, int oldFlags, int newFlags){
+            if(oldFaction != newFaction){
+                if(oldFaction != 0) factions[oldFaction - 1]--;
+                if(newFaction != 0) factions[newFaction - 1]++;
+
+                int bit = localX + localY * chunkSize, mono = Faction.monolith.ordinal() + 1;
+                if(newFaction == mono){
+                    monolith[bit >>> 6] |= 1L << bit;
+
+                    int tx = x + localX, ty = y + localY;
+                    if(count(Faction.monolith) == 1){
+                        minX = maxX = tx;
+                        minY = maxY = ty;
+                    }else{
+                        minX = Math.min(minX, tx);
+                        minY = Math.min(minY, ty);
+                        maxX = Math.max(maxX, tx);
+                        maxY = Math.max(maxY, ty);
+                    }
+                }else if(oldFaction == mono){
+                    monolith[bit >>> 6] &= ~(1L << bit);
+
+                    int tx = x + localX, ty = y + localY;
+                    if(count(Faction.monolith) > 0 && (tx == minX || tx == maxX || ty == minY || ty == maxY)) updateBounds();
+                }
+            }
 
-            monolithTiles.clear();
-            monolithTilePos.clear();
+            int changed = oldFlags ^ newFlags;
+            while(changed != 0){
+                int flag = Integer.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
 
-            for(int y = this.y; y < height; y++){
-                for(int x = this.x; x < width; x++) update(world.tile(x, y));
+                flags[flag] += (newFlags & (1 << flag)) != 0 ? 1 : -1;
             }
         }
     }
@@ -38,7 +38,7 @@ public class PrismTurret extends SoulPowerTurret{
 
     public PrismTurret(String name){
         super(name);
-        unitSort = (unit, x, y) -> Groups.unit.intersect(x - sortRange, y - sortRange, sortRange * 2f, sortRange * 2f).count(u -> u.within(unit, sortRange) && u.checkTarget(targetAir, targetGround));
+        unitSort = (unit, x, y) -> UnitDensity.get(unit.team).count(unit.x, unit.y, sortRange, targetAir, targetGround);
     }
 
     public class PrismTurretBuild extends SoulPowerTurretBuild{
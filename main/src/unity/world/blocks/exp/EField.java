@@ -23,6 +23,9 @@ public abstract class EField<T> {
     public abstract void setLevel(int l);
     public void buildTable(Table table, int end){}
 
+    /** Precomputes this field's values for levels {@code 0} to {@code maxLevel}, called once on block initialization. */
+    public void compile(int maxLevel){}
+
     public EField<T> formatAll(boolean f){
         this.formatAll = f;
         return this;
@@ -33,17 +36,50 @@ public abstract class EField<T> {
         return "[#84ff00]NULL[]";
     }
 
-    //f(x) = scale * x + start
-    public static class ELinear extends EField<Float> {
+    /** Base class for float fields, whose per-level values are compiled into a primitive table to avoid boxing on every update. */
+    public static abstract class EFloat extends EField<Float> {
         public Floatc set;
+        protected @Nullable float[] table;
+
+        public EFloat(Floatc set, Stat stat){
+            super(stat);
+            this.set = set;
+        }
+
+        /** @return The uncompiled value of this field at the given level. */
+        public abstract float compute(int l);
+
+        @Override
+        public void compile(int maxLevel){
+            table = new float[maxLevel + 1];
+            for(int l = 0; l <= maxLevel; l++) table[l] = compute(l);
+        }
+
+        /** @return The value of this field at the given level, looked up from the compiled table if available. */
+        public float get(int l){
+            return (table != null && l >= 0 && l < table.length) ? table[l] : compute(l);
+        }
+
+        @Override
+        public Float fromLevel(int l){
+            return get(l);
+        }
+
+        @Override
+        public void setLevel(int l){
+            set.get(get(l));
+        }
+    }
+
+    //f(x) = scale * x + start
+    public static class ELinear extends EFloat {
         public float start, scale;
         public Func<Float, String> format;
 
         public ELinear(Floatc set, float start, float scale, Stat stat, Func<Float, String> format){
-            super(stat);
+            super(set, stat);
             this.start = start;
             this.scale = scale;
-            this.set = set;
             this.format = format;
         }
 
@@ -52,15 +88,10 @@ public abstract class EField<T> {
         }
 
         @Override
-        public Float fromLevel(int l){
+        public float compute(int l){
             return start + l * scale;
         }
 
-        @Override
-        public void setLevel(int l){
-            set.get(fromLevel(l));
-        }
-
         @Override
         public String toString(){
             //return Strings.autoFixed(start, 1) + " + " + "[#84ff00]" + Strings.autoFixed(scale, 1) + " per level[]";
@@ -70,7 +101,7 @@ public abstract class EField<T> {
         @Override
         public void buildTable(Table table, int end){
             table.left();
-            Graph g = new Graph(this::fromLevel, end, UnityPal.exp);
+            Graph g = new Graph(this::get, end, UnityPal.exp);
             table.add(g).size(graphWidth, graphHeight).left();
             table.row();
             table.label(() -> g.lastMouseOver ? (Core.bundle.format("ui.graph.label", g.lastMouseStep, formatAll ? format.get(g.mouseValue()) : Strings.autoFixed(g.mouseValue(), 2))) : Core.bundle.get("ui.graph.hover"));
@@ -90,15 +121,10 @@ public abstract class EField<T> {
         }
 
         @Override
-        public Float fromLevel(int l){
+        public float compute(int l){
             return start + Math.min(l, cap) * scale;
         }
 
-        @Override
-        public void setLevel(int l){
-            set.get(fromLevel(l));
-        }
-
         @Override
         public String toString(){
             return Core.bundle.format("field.linearcap", format.get(start), formatAll ? format.get(scale) : Strings.autoFixed(scale, 2), cap);
@@ -106,16 +132,14 @@ public abstract class EField<T> {
     }
 
     //f(x) = start * scale ^ x
-    public static class EExpo extends EField<Float> {
-        public Floatc set;
+    public static class EExpo extends EFloat {
         public float start, scale;
         public Func<Float, String> format;
 
         public EExpo(Floatc set, float start, float scale, Stat stat, Func<Float, String> format){
-            super(stat);
+            super(set, stat);
             this.start = start;
             this.scale = scale;
-            this.set = set;
             this.format = format;
         }
 
@@ -124,15 +148,10 @@ public abstract class EField<T> {
         }
 
         @Override
-        public Float fromLevel(int l){
+        public float compute(int l){
             return start * Mathf.pow(scale, l);
         }
 
-        @Override
-        public void setLevel(int l){
-            set.get(fromLevel(l));
-        }
-
         @Override
         public String toString(){
             return Core.bundle.format("field.exponent", format.get(start), scale);
@@ -141,7 +160,7 @@ public abstract class EField<T> {
         @Override
         public void buildTable(Table table, int end){
             table.left();
-            Graph g = new Graph(this::fromLevel, end, UnityPal.exp);
+            Graph g = new Graph(this::get, end, UnityPal.exp);
             table.add(g).size(graphWidth, graphHeight).left();
             table.row();
             table.label(() -> g.lastMouseOver ? (Core.bundle.format("ui.graph.label", g.lastMouseStep, formatAll ? format.get(g.mouseValue()) : Strings.autoFixed(g.mouseValue(), 2))) : Core.bundle.get("ui.graph.hover"));
@@ -160,8 +179,8 @@ public abstract class EField<T> {
         }
 
         @Override
-        public Float fromLevel(int l){
-            return clamp ? Mathf.clamp(super.fromLevel(l) - start) : super.fromLevel(l) - start;
+        public float compute(int l){
+            return clamp ? Mathf.clamp(super.compute(l) - start) : super.compute(l) - start;
         }
 
         @Override
@@ -171,19 +190,17 @@ public abstract class EField<T> {
     }
 
     //f(x) = a / (x - axis) + end, a = a(start) -> f(0) = start (axis != 0)
-    public static class ERational extends EField<Float> {
-        public Floatc set;
+    public static class ERational extends EFloat {
         public float start, end, axis, a;
         public Func<Float, String> format;
 
         public ERational(Floatc set, float start, float end, float axis, Stat stat, Func<Float, String> format){
-            super(stat);
+            super(set, stat);
             this.start = start;
             this.end = end;
             if(axis == 0) throw new ArithmeticException("Vertical asymptote cannot be x = 0");
             this.axis = axis;
             a = (end - start) * axis;
-            this.set = set;
             this.format = format;
         }
 
@@ -196,15 +213,10 @@ public abstract class EField<T> {
         }
 
         @Override
-        public Float fromLevel(int l){
+        public float compute(int l){
             return a / (l - axis) + end;
         }
 
-        @Override
-        public void setLevel(int l){
-            set.get(fromLevel(l));
-        }
-
         @Override
         public String toString(){
             return Core.bundle.format("field.rational", format.get(start), formatAll ? format.get(end) : Strings.autoFixed(end, 2));
@@ -213,7 +225,7 @@ public abstract class EField<T> {
         @Override
         public void buildTable(Table table, int end){
             table.left();
-            Graph g = new Graph(this::fromLevel, end, UnityPal.exp);
+            Graph g = new Graph(this::get, end, UnityPal.exp);
             table.add(g).size(graphWidth, graphHeight).left();
             table.row();
             table.label(() -> g.lastMouseOver ? (Core.bundle.format("ui.graph.label", g.lastMouseStep, formatAll ? format.get(g.mouseValue()) : Strings.autoFixed(g.mouseValue(), 2))) : Core.bundle.get("ui.graph.hover"));
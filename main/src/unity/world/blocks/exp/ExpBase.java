@@ -31,6 +31,8 @@ public class ExpBase extends Block {
     public int maxLevel = 10; //must be below 200
     public int maxExp;
     public EField<?>[] expFields;
+    /** The level whose field values were last applied to this block, or {@code -1} if none. */
+    protected int appliedLevel = -1;
 
     public @Nullable ExpBase pregrade = null;
     public int pregradeLevel = -1;
@@ -50,6 +52,7 @@ public class ExpBase extends Block {
         if(expFields == null) expFields = new EField[]{};
         maxExp = requiredExp(maxLevel);
         if(expLevel(maxExp) < maxLevel) maxExp++; //floating point error
+        for(EField<?> f : expFields) f.compile(maxLevel);
 
         setEFields(0);
 
@@ -133,7 +136,11 @@ public class ExpBase extends Block {
         return l * l * 25 * expScale;
     }
 
+    /** Applies the field values of the given level to this block; skipped if that level is already applied. */
     public void setEFields(int l){
+        if(l == appliedLevel) return;
+        appliedLevel = l;
+
         for(EField<?> f : expFields){
             f.setLevel(l);
         }
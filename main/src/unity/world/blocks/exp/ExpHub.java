@@ -64,6 +64,7 @@ public class ExpHub extends ExpTank{
         });
         configClear((ExpHubBuild entity) -> {
             entity.links.clear();
+            entity.sanitize();
         });
         config(Point2[].class, (ExpHubBuild tile, Point2[] value) -> {
             IntSeq old = new IntSeq(tile.links);
@@ -172,6 +173,8 @@ public class ExpHub extends ExpTank{
     public class ExpHubBuild extends ExpTankBuild {
         public float reload = reloadTime;
         public IntSeq links = new IntSeq();
+        /** Resolved buildings of {@link #links}, refreshed on {@link #sanitize()}. */
+        public Seq<Building> linked = new Seq<>(false, 4, Building.class);
 
         public int takeAmount(int e, Building source){
             if(e <= 0) return 0;
@@ -182,14 +185,17 @@ public class ExpHub extends ExpTank{
         }
 
         public void sanitize(){
+            linked.clear();
             for(int i = 0; i < links.size; i++){
                 Building b = world.build(links.get(i));
 
                 if(!linkValid(this, b, true) || links.get(i) != b.pos()){
                     links.removeIndex(i);
                     i--;
+                }else{
+                    linked.add(b);
+                    if(b instanceof ExpHolder e && e.hubbable() && e.canHub(this)) e.setHub(this);
                 }
-                else if(b instanceof ExpHolder e && e.hubbable() && e.canHub(this)) e.setHub(this);
             }
         }
 
@@ -209,6 +215,7 @@ public class ExpHub extends ExpTank{
         @Override
         public void dropped(){
             links.clear();
+            linked.clear();
         }
 
         @Override
@@ -243,9 +250,9 @@ public class ExpHub extends ExpTank{
             if(Mathf.zero(Renderer.laserOpacity) || links.size == 0) return;
             Draw.z(Layer.power + 1f);
             Draw.alpha(Renderer.laserOpacity * (Mathf.absin(5f, 0.3f) + 0.1f));
-            for(int i = 0; i < links.size; i++){
-                Building b = world.build(links.get(i));
-                if(!linkValid(this, b, true) || links.get(i) != b.pos()) continue;
+            for(int i = 0; i < linked.size; i++){
+                Building b = linked.items[i];
+                if(!b.isValid() || b.team != team) continue;
 
                 Tmp.v2.set(b);
                 Tmp.v1.set(Tmp.v2).sub(this).nor().scl(size * tilesize / 2f);
@@ -39,6 +39,8 @@ public class ExpTurret extends Turret {
     public EField<?>[] expFields;
     public boolean passive = false;
     public boolean updateExpFields = true;
+    /** The level whose field values were last applied to this block, or {@code -1} if none. */
+    protected int appliedLevel = -1;
 
     public @Nullable ExpTurret pregrade = null;
     public int pregradeLevel = -1;
@@ -55,7 +57,7 @@ public class ExpTurret extends Turret {
     private final Seq<Building> seqs = new Seq<>();//uwagh
 
     //damage resist feature for all blocks
-    public EField<Float> damageReduction;
+    public EField.EFloat damageReduction;
     //optional drawer
     public @Nullable DrawLevel draw = null;
 
@@ -69,6 +71,7 @@ public class ExpTurret extends Turret {
         if(expFields == null) expFields = new EField[]{};
         maxExp = requiredExp(maxLevel);
         if(expLevel(maxExp) < maxLevel) maxExp++; //floating point error
+        for(EField<?> f : expFields) f.compile(maxLevel);
 
         //check for range field
         for(EField<?> f : expFields){
@@ -88,6 +91,7 @@ public class ExpTurret extends Turret {
 
         if(pregrade != null && pregradeLevel < 0) pregradeLevel = pregrade.maxLevel;
         if(damageReduction == null) damageReduction = new EField.EExpoZero(f -> {}, 0.1f, Mathf.pow(4f + size, 1f / maxLevel), true, null, v -> Strings.autoFixed(Mathf.roundPositive(v * 10000) / 100f, 2)+ "%");
+        damageReduction.compile(maxLevel);
     }
 
     @Override
@@ -230,7 +234,11 @@ public class ExpTurret extends Turret {
         return l * l * 5 * expScale;
     }
 
+    /** Applies the field values of the given level to this block; skipped if that level is already applied. */
     public void setEFields(int l){
+        if(l == appliedLevel) return;
+        appliedLevel = l;
+
         for(EField<?> f : expFields){
             f.setLevel(l);
         }
@@ -398,10 +406,10 @@ public class ExpTurret extends Turret {
             t.clearChildren();
             t.defaults().height(18f).pad(4);
             final int l = level();
-            if(damageReduction.fromLevel(level()) >= 0.01f){
+            if(damageReduction.get(level()) >= 0.01f){
                 Image ii = new Image(Icon.defense, Pal.health);
                 ii.setSize(14f);
-                Label ll = new Label(() -> Mathf.roundPositive(damageReduction.fromLevel(level()) * 100) + "");
+                Label ll = new Label(() -> Mathf.roundPositive(damageReduction.get(level()) * 100) + "");
                 ll.setStyle(new Label.LabelStyle(Styles.outlineLabel));
                 //ll.setColor(UnityPal.armor);
                 ll.setSize(26f, 18f);
@@ -421,7 +429,7 @@ public class ExpTurret extends Turret {
 
         @Override
         public float handleDamage(float amount){
-            return super.handleDamage(amount) * Mathf.clamp(1f - damageReduction.fromLevel(level()));
+            return super.handleDamage(amount) * Mathf.clamp(1f - damageReduction.get(level()));
         }
 
         @Override
@@ -461,27 +469,20 @@ public class ExpTurret extends Turret {
     }
 
     //reloadtime calculation sucks
-    public class LinearReloadTime extends EField<Float> {
-        public Floatc set;
+    public class LinearReloadTime extends EField.EFloat {
         public float start, scale;
 
         public LinearReloadTime(Floatc set, float start, float scale){
-            super(Stat.reload);
+            super(set, Stat.reload);
             this.start = start;
             this.scale = scale;
-            this.set = set;
         }
 
         @Override
-        public Float fromLevel(int l){
+        public float compute(int l){
             return start + l * scale;
         }
 
-        @Override
-        public void setLevel(int l){
-            set.get(fromLevel(l));
-        }
-
         @Override
         public String toString(){
             return Core.bundle.format("field.linearreload", Strings.autoFixed(shots * 60f / start, 2), Strings.autoFixed(shots * 60f / (start + scale * maxLevel), 2));
@@ -490,7 +491,7 @@ public class ExpTurret extends Turret {
         @Override
         public void buildTable(Table table, int end){
             table.left();
-            Graph g = new Graph(i -> shots * 60f / fromLevel(i), end, UnityPal.exp);
+            Graph g = new Graph(i -> shots * 60f / get(i), end, UnityPal.exp);
             table.add(g).size(graphWidth, graphHeight).left();
             table.row();
             table.label(() -> g.lastMouseOver ? Core.bundle.format("ui.graph.label", g.lastMouseStep, Strings.autoFixed(g.mouseValue(), 2) + "/s") : Core.bundle.get("ui.graph.hover"));
@@ -5,10 +5,10 @@ import arc.math.*;
 import arc.math.geom.*;
 import arc.util.*;
 import mindustry.gen.*;
-import unity.entities.ExpOrbs.*;
 import unity.world.blocks.*;
 
 import static arc.Core.*;
+import static unity.Unity.*;
 
 public class Magnet extends GraphBlock{
     public final TextureRegion[] regions = new TextureRegion[4];
@@ -43,18 +43,17 @@ public class Magnet extends GraphBlock{
         public void updatePost(){
             float f = flux().flux();
             
+            expOrbs.push(x, y, f * 2f, 5f * Time.delta * 0.1f * f, Geometry.d4x(rotation), Geometry.d4y(rotation));
             Groups.bullet.intersect(x - f * 2f, y - f * 2f, f * 4f, f * 4f, bullet -> {
                 if(bullet.type == null) return;
                 
-                boolean isOrb = bullet.type instanceof ExpOrb;
-                
-                if(bullet.type.hittable || isOrb){
+                if(bullet.type.hittable){
                     float dx = bullet.x - x;
                     float dy = bullet.y - y;
                     float dis = Mathf.sqrt(dx * dx + dy * dy);
                     
                     if(dis < f * 2f){
-                        float mul = 1f / Math.max(1f, bullet.type.estimateDPS() / 10f) * (isOrb ? 5f : 1f) * Time.delta * 0.1f * f / (8f + dis);//invmass*forcemag
+                        float mul = 1f / Math.max(1f, bullet.type.estimateDPS() / 10f) * Time.delta * 0.1f * f / (8f + dis);//invmass*forcemag
                         
                         bullet.vel.x += mul * Geometry.d4x(rotation);
                         bullet.vel.y += mul * Geometry.d4y(rotation);
@@ -5,44 +5,51 @@ import arc.graphics.*;
 import arc.graphics.g2d.*;
 import arc.struct.*;
 
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
 import static unity.tools.Tools.*;
 
 /**
  * A specialized thread-safe texture atlas for generated texture regions. No {@link Texture}s are instantiated; use
- * {@link GenRegion#pixmap()} instead.
+ * {@link GenRegion#pixmap()} instead. Regions backed by a file only load their pixmap on first use, and may have it
+ * {@linkplain #trim() evicted} again once the loaded pixmaps exceed {@link #budget}.
  * @author GlennFolker
  */
 public class GenAtlas extends TextureAtlas{
     public GenRegion clear;
-    private final ObjectMap<String, GenRegion> regions = new ObjectMap<>();
+    /** Bytes of file-backed pixmaps allowed to stay loaded between processing passes. */
+    public long budget = Long.getLong("unity.tools.memory", Runtime.getRuntime().maxMemory() / 2);
+
+    private final ConcurrentHashMap<String, GenRegion> regions = new ConcurrentHashMap<>();
+    private final Set<GenRegion> resident = ConcurrentHashMap.newKeySet();
+    private final AtomicLong loaded = new AtomicLong(), peak = new AtomicLong(), ticks = new AtomicLong();
 
     /** The name should be prefixed with {@code unity-} */
     public GenRegion addRegion(Fi file){
         String name = file.nameWithoutExtension();
         if(!file.path().contains("sprites/vanilla/")) name = "unity-" + name;
 
-        GenRegion reg = new GenRegion(name, new Pixmap(file));
+        GenRegion reg = new GenRegion(name, file);
 
         String path = file.path();
         path = path.substring(path.indexOf("sprites/") + "sprites/".length(), path.lastIndexOf("/"));
 
         reg.relativePath = path;
 
-        synchronized(regions){
-            regions.put(name, reg);
-            return reg;
-        }
+        regions.put(name, reg);
+        return reg;
     }
 
     /** @inheritDocs. The name should be prefixed with {@code unity-} */
     @Override
     public GenRegion addRegion(String name, TextureRegion textureRegion){
-        synchronized(regions){
-            GenRegion reg = (GenRegion)textureRegion;
+        GenRegion reg = (GenRegion)textureRegion;
 
-            regions.put(name, reg);
-            return reg;
-        }
+        regions.put(name, reg);
+        return reg;
     }
 
     /** @inheritDocs. The name should be prefixed with {@code unity-} */
@@ -51,59 +58,100 @@ public class GenAtlas extends TextureAtlas{
         Pixmap pixmap = texture.getTextureData().getPixmap();
         GenRegion reg = new GenRegion(name, Pixmaps.crop(pixmap, x, y, width, height));
 
-        synchronized(regions){
-            regions.put(name, reg);
-            return reg;
-        }
+        regions.put(name, reg);
+        return reg;
     }
 
     @Override
     public GenRegion find(String name){
-        synchronized(regions){
-            if(!regions.containsKey(name)){
-                return new GenRegion(name, null);
-            }
+        GenRegion reg = peek(name);
+        SpriteCache.read(name, reg);
 
-            return regions.get(name);
-        }
+        return reg == null ? new GenRegion(name, (Pixmap)null) : reg;
     }
 
     @Override
     public GenRegion find(String name, String def){
-        synchronized(regions){
-            return regions.get(name, find(def));
-        }
+        GenRegion reg = peek(name);
+        SpriteCache.read(name, reg);
+
+        return reg == null ? find(def) : reg;
     }
 
     @Override
     public GenRegion find(String name, TextureRegion def){
-        synchronized(regions){
-            return regions.get(name, (GenRegion)def);
-        }
+        GenRegion reg = peek(name);
+        SpriteCache.read(name, reg);
+
+        return reg == null ? (GenRegion)def : reg;
     }
 
     @Override
     public boolean has(String s){
-        synchronized(regions){
-            return regions.containsKey(s);
+        GenRegion reg = peek(s);
+        SpriteCache.read(s, reg);
+
+        return reg != null;
+    }
+
+    /** Looks a region up without recording it as an input of the running {@link SpriteCache} job. */
+    public GenRegion peek(String name){
+        return regions.get(name);
+    }
+
+    /**
+     * Unloads the least recently used file-backed pixmaps until the loaded ones fit in the {@link #budget}. Callers hold on
+     * to raw pixmaps while processing, so this must only be called while no processing job is running.
+     * @return The amount of evicted regions.
+     */
+    public int trim(){
+        if(loaded.get() <= budget) return 0;
+
+        Seq<GenRegion> candidates = new Seq<>(resident.size());
+        for(GenRegion reg : resident) candidates.add(reg);
+        candidates.sort((a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+
+        int evicted = 0;
+        for(GenRegion reg : candidates){
+            if(loaded.get() <= budget) break;
+            if(reg.evict()) evicted++;
         }
+
+        return evicted;
+    }
+
+    /**
+     * Loads the region registered under the name into memory for good if it's backed by the given file, since that file is
+     * about to be overwritten with a different region's pixels.
+     */
+    public void release(String name, Fi file){
+        GenRegion prev = peek(name);
+        if(prev != null) prev.detach(file);
+    }
+
+    /** @return The highest amount of bytes taken by file-backed pixmaps at once. */
+    public long peakLoaded(){
+        return peak.get();
     }
 
     @Override
     public void dispose(){
-        synchronized(regions){
-            for(var pix : regions.values()){
-                if(pix.pixmap != null) pix.pixmap.dispose();
-            }
-
-            regions.clear();
+        for(var reg : regions.values()){
+            reg.evict();
+            if(reg.pixmap != null) reg.pixmap.dispose();
         }
+
+        regions.clear();
+        resident.clear();
     }
 
     public static class GenRegion extends AtlasRegion{
         public String relativePath = "";
 
-        private final Pixmap pixmap;
+        /** The file this region's pixmap can be reloaded from, or {@code null} if it only lives in memory. */
+        private volatile Fi file;
+        private volatile Pixmap pixmap;
+        private volatile long lastUsed;
 
         public GenRegion(String name, Pixmap pixmap){
             this.name = name;
@@ -118,9 +166,27 @@ public class GenAtlas extends TextureAtlas{
             u2 = v2 = 1f;
         }
 
+        /** Creates a region whose pixmap is loaded from the file on first use. */
+        public GenRegion(String name, Fi file){
+            this.name = name;
+            this.file = file;
+
+            // Only the PNG header is read up front; the pixels are streamed in when actually needed.
+            try(DataInputStream in = new DataInputStream(file.read(32))){
+                in.skipBytes(16);
+                width = in.readInt();
+                height = in.readInt();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+
+            u = v = 0f;
+            u2 = v2 = 1f;
+        }
+
         @Override
         public boolean found(){
-            return pixmap != null;
+            return pixmap != null || file != null;
         }
 
         /**
@@ -130,7 +196,45 @@ public class GenAtlas extends TextureAtlas{
          */
         public Pixmap pixmap(){
             if(!found()) throw new IllegalArgumentException("Region does not exist: " + name);
-            return pixmap;
+
+            Pixmap pix = pixmap;
+            if(pix == null){
+                synchronized(this){
+                    pix = pixmap;
+                    if(pix == null){
+                        pixmap = pix = new Pixmap(file);
+
+                        long bytes = atlas.loaded.addAndGet(size());
+                        atlas.peak.accumulateAndGet(bytes, Math::max);
+                        atlas.resident.add(this);
+                    }
+                }
+            }
+
+            lastUsed = atlas.ticks.incrementAndGet();
+            return pix;
+        }
+
+        /** Unloads the pixmap if it can be reloaded from its file. */
+        synchronized boolean evict(){
+            if(file == null || pixmap == null || !atlas.resident.remove(this)) return false;
+
+            pixmap.dispose();
+            pixmap = null;
+            atlas.loaded.addAndGet(-size());
+            return true;
+        }
+
+        synchronized void detach(Fi target){
+            if(file == null || !file.absolutePath().equals(target.absolutePath())) return;
+
+            pixmap();
+            file = null;
+            if(atlas.resident.remove(this)) atlas.loaded.addAndGet(-size());
+        }
+
+        long size(){
+            return width * height * 4L;
         }
 
         public void save(){
@@ -144,9 +248,22 @@ public class GenAtlas extends TextureAtlas{
             dir.mkdirs();
 
             Fi file = dir.child(name.replaceFirst("unity-", "") + ".png");
-            file.writePng(pixmap);
+            Pixmap pix = pixmap();
+
+            if(atlas.peek(name) != this) atlas.release(name, file);
+            file.writePng(pix);
+
+            // Now that it's on disk, the pixmap may be unloaded and read back later.
+            synchronized(this){
+                if(this.file == null){
+                    this.file = file;
+                    atlas.loaded.addAndGet(size());
+                    atlas.resident.add(this);
+                }
+            }
 
             if(add) atlas.addRegion(name, this);
+            SpriteCache.wrote(this);
         }
     }
 }
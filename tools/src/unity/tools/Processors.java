@@ -1,12 +1,12 @@
 package unity.tools;
 
 import arc.util.*;
-import arc.util.async.*;
 import unity.tools.proc.*;
 
 import java.util.concurrent.*;
 
 import static unity.Unity.*;
+import static unity.tools.Tools.*;
 
 /**
  * Static class containing all processors. Call {@link #process()} to initiate asset processing.
@@ -15,22 +15,29 @@ import static unity.Unity.*;
 public final class Processors{
     private static final Processor[] processes = {
         new OutlineRegionProcessor(),
-        new UnitProcessor()
+        new UnitProcessor(),
+        new ModelProcessor(),
+        new ObjectProcessor()
     };
 
     private Processors(){}
 
     public static void process(){
+        SpriteCache.load();
         for(var process : processes){
             Time.mark();
 
-            ExecutorService exec = Executors.newCachedThreadPool();
-
-            process.process(exec);
-            Threads.await(exec);
+            process.process(pool);
+            pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
 
             process.finish();
             print(process.getClass().getSimpleName() + " executed for " + Time.elapsed() + "ms");
+
+            // No job is running between passes, so pixmaps nobody holds anymore can be unloaded safely.
+            int evicted = atlas.trim();
+            if(evicted > 0) print("Evicted " + evicted + " pixmaps to stay within the memory budget.");
         }
+
+        SpriteCache.save();
     }
 }
@@ -0,0 +1,342 @@
+package unity.tools;
+
+import arc.files.*;
+import arc.func.*;
+import arc.graphics.*;
+import arc.struct.*;
+import arc.util.*;
+import mindustry.*;
+import unity.*;
+import unity.tools.GenAtlas.*;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static unity.Unity.*;
+import static unity.tools.Tools.*;
+
+/**
+ * Incremental build cache for processor jobs. While a job runs, every atlas region it looks up is recorded along with a hash
+ * of its pixels, and every region it saves is copied into the cache directory. On the next run, a job whose parameters and
+ * recorded inputs are unchanged has its outputs copied back instead of being run again. Cached outputs that are no longer
+ * produced are deleted.
+ * @see #run(String, long, UnsafeRunnable)
+ */
+public final class SpriteCache{
+    private static final int version = 2;
+    private static final long absent = 0x9E3779B97F4A7C15L;
+
+    private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final Set<String> used = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Recording> recording = new ThreadLocal<>();
+
+    /** Jobs restored from and stored into the cache in this run. */
+    private static final LongAdder restoredJobs = new LongAdder(), storedJobs = new LongAdder();
+
+    private static Fi manifest;
+    private static volatile long cachedCodeHash;
+
+    private SpriteCache(){
+        throw new AssertionError();
+    }
+
+    /** Reads the manifest of the previous run, if any. */
+    public static void load(){
+        manifest = cacheDir.child("manifest.bin");
+        entries.clear();
+        used.clear();
+        if(!manifest.exists()) return;
+
+        try(DataInputStream in = new DataInputStream(manifest.read(8192))){
+            if(in.readInt() != version) return;
+
+            int count = in.readInt();
+            for(int i = 0; i < count; i++){
+                Entry entry = new Entry(in.readUTF(), in.readLong());
+
+                int inputs = in.readInt();
+                for(int j = 0; j < inputs; j++) entry.inputs.put(in.readUTF(), in.readLong());
+
+                int outputs = in.readInt();
+                for(int j = 0; j < outputs; j++) entry.outputs.add(new Output(in.readUTF(), in.readUTF()));
+
+                entries.put(entry.key, entry);
+            }
+        }catch(IOException e){
+            print("Discarding unreadable sprite cache manifest: " + e);
+            entries.clear();
+        }
+    }
+
+    /** Deletes cached outputs of jobs that didn't run this time, and writes the manifest. */
+    public static void save(){
+        for(var it = entries.values().iterator(); it.hasNext();){
+            Entry entry = it.next();
+            if(used.contains(entry.key)) continue;
+
+            for(Output out : entry.outputs) out.cached().delete();
+            it.remove();
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(manifest.write(false), 8192))){
+            out.writeInt(version);
+            out.writeInt(entries.size());
+            for(Entry entry : entries.values()){
+                out.writeUTF(entry.key);
+                out.writeLong(entry.params);
+
+                out.writeInt(entry.inputs.size);
+                for(var input : entry.inputs){
+                    out.writeUTF(input.key);
+                    out.writeLong(input.value);
+                }
+
+                out.writeInt(entry.outputs.size);
+                for(Output output : entry.outputs){
+                    out.writeUTF(output.name);
+                    out.writeUTF(output.relativePath);
+                }
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+
+        print("Sprite cache: " + restoredJobs.sum() + " jobs restored, " + storedJobs.sum() + " jobs processed.");
+    }
+
+    /**
+     * Runs a job, or restores its outputs if it ran before with the same parameters and inputs. The whole job must run on
+     * the calling thread so that its region lookups can be recorded.
+     * @param key    A key unique to this job.
+     * @param params A hash of everything besides atlas regions that affects the job's outputs.
+     */
+    public static void run(String key, long params, UnsafeRunnable job) throws Throwable{
+        run(key, params, job, null);
+    }
+
+    /**
+     * Same as {@link #run(String, long, UnsafeRunnable)}.
+     * @param restored Called with the name of every output region right before it is restored, so that processors sharing
+     *                 regions between jobs can mark them as already generated.
+     */
+    public static void run(String key, long params, UnsafeRunnable job, @Nullable Cons<String> restored) throws Throwable{
+        used.add(key);
+
+        Entry previous = entries.get(key);
+        if(previous != null && previous.params == params && upToDate(previous) && restore(previous, restored)){
+            restoredJobs.increment();
+            return;
+        }
+
+        Recording rec = new Recording();
+        recording.set(rec);
+        try{
+            job.run();
+        }finally{
+            recording.remove();
+        }
+
+        Entry entry = new Entry(key, params);
+        entry.inputs.putAll(rec.inputs);
+        for(GenRegion region : rec.outputs.values()){
+            Output out = new Output(region.name, region.relativePath);
+            out.file().copyTo(out.cached());
+            entry.outputs.add(out);
+        }
+
+        if(previous != null){
+            for(Output out : previous.outputs){
+                if(!entry.outputs.contains(o -> o.name.equals(out.name) && o.relativePath.equals(out.relativePath))) out.cached().delete();
+            }
+        }
+
+        entries.put(key, entry);
+        storedJobs.increment();
+    }
+
+    /** Records an atlas lookup made by the current job, if any. */
+    static void read(String name, @Nullable GenRegion region){
+        Recording rec = recording.get();
+        if(rec == null || rec.inputs.containsKey(name) || rec.outputs.containsKey(name)) return;
+
+        rec.inputs.put(name, hash(region));
+    }
+
+    /** Records a region saved by the current job, if any. */
+    static void wrote(GenRegion region){
+        Recording rec = recording.get();
+        if(rec != null) rec.outputs.put(region.name, region);
+    }
+
+    static boolean upToDate(Entry entry){
+        for(var input : entry.inputs){
+            if(hash(atlas.peek(input.key)) != input.value) return false;
+        }
+
+        return true;
+    }
+
+    static boolean restore(Entry entry, @Nullable Cons<String> restored){
+        for(Output out : entry.outputs){
+            if(!out.cached().exists()) return false;
+        }
+
+        for(Output out : entry.outputs){
+            if(restored != null) restored.get(out.name);
+
+            Fi file = out.file();
+            atlas.release(out.name, file);
+            out.cached().copyTo(file);
+
+            GenRegion region = new GenRegion(out.name, file);
+            region.relativePath = out.relativePath;
+            atlas.addRegion(out.name, region);
+        }
+
+        return true;
+    }
+
+    /** @return A hash of the region's pixels, or a fixed value if it doesn't exist. */
+    public static long hash(@Nullable GenRegion region){
+        if(region == null || !region.found()) return absent;
+
+        Pixmap pixmap = region.pixmap();
+        ByteBuffer pixels = pixmap.pixels.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        pixels.position(0);
+
+        long h = mix(mix(0L, pixmap.width), pixmap.height);
+        while(pixels.remaining() >= 8) h = mix(h, pixels.getLong());
+        while(pixels.hasRemaining()) h = mix(h, pixels.get());
+
+        return h;
+    }
+
+    /**
+     * @return A hash of the compiled code of the tools, the mod, Mindustry, and Arc, so that changing a processor or any helper
+     * it draws with, such as {@code GraphicUtils} or a decoration's {@code drawIcon()}, invalidates every cached output.
+     * Computed once per run.
+     */
+    public static long codeHash(){
+        long h = cachedCodeHash;
+        if(h != 0L) return h;
+
+        synchronized(SpriteCache.class){
+            if(cachedCodeHash != 0L) return cachedCodeHash;
+
+            h = 1L;
+            ObjectSet<String> seen = new ObjectSet<>();
+            for(Class<?> type : new Class<?>[]{SpriteCache.class, Unity.class, Vars.class, Pixmaps.class}){
+                try{
+                    var source = type.getProtectionDomain().getCodeSource();
+                    if(source == null) continue;
+
+                    Path path = Paths.get(source.getLocation().toURI());
+                    if(!seen.add(path.toString())) continue;
+
+                    h = hashPath(h, path);
+                }catch(Exception e){
+                    throw new RuntimeException("Couldn't hash the code of " + type.getName(), e);
+                }
+            }
+
+            return cachedCodeHash = h;
+        }
+    }
+
+    static long hashPath(long h, Path root) throws IOException{
+        if(!Files.isDirectory(root)) return hashBytes(h, Files.readAllBytes(root));
+
+        try(var files = Files.walk(root)){
+            for(Path file : (Iterable<Path>)files.filter(Files::isRegularFile).sorted()::iterator){
+                h = mix(h, root.relativize(file).toString().hashCode());
+                h = hashBytes(h, Files.readAllBytes(file));
+            }
+        }
+
+        return h;
+    }
+
+    static long hashBytes(long h, byte[] bytes){
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        h = mix(h, bytes.length);
+        while(buffer.remaining() >= 8) h = mix(h, buffer.getLong());
+        while(buffer.hasRemaining()) h = mix(h, buffer.get());
+
+        return h;
+    }
+
+    /**
+     * @return A hash of every instance field of the given object holding a primitive, string, enum, or color, which is how
+     * content definitions are compared between runs.
+     */
+    public static long hashFields(@Nullable Object object){
+        if(object == null) return absent;
+
+        long h = mix(0L, object.getClass().getName().hashCode());
+        for(Class<?> type = object.getClass(); type != null && type != Object.class; type = type.getSuperclass()){
+            for(Field field : type.getDeclaredFields()){
+                if(Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+
+                Class<?> ftype = field.getType();
+                if(!ftype.isPrimitive() && ftype != String.class && !ftype.isEnum() && ftype != Color.class) continue;
+
+                try{
+                    field.setAccessible(true);
+                    Object value = field.get(object);
+
+                    h = mix(h, field.getName().hashCode());
+                    // Enum hash codes are identity hashes that change between runs, so enums are compared by ordinal.
+                    h = mix(h, value instanceof Color c ? c.rgba() : value instanceof Enum<?> e ? e.ordinal() : Objects.hashCode(value));
+                }catch(Exception ignored){
+                    // Inaccessible fields can't be compared; they're left out of the hash.
+                }
+            }
+        }
+
+        return h;
+    }
+
+    public static long mix(long h, long value){
+        h ^= value * 0xC2B2AE3D27D4EB4FL;
+        return Long.rotateLeft(h, 31) * 0x9E3779B97F4A7C15L + 0x165667B19E3779F9L;
+    }
+
+    static class Recording{
+        final ObjectMap<String, Long> inputs = new ObjectMap<>();
+        final OrderedMap<String, GenRegion> outputs = new OrderedMap<>();
+    }
+
+    static class Entry{
+        final String key;
+        final long params;
+        final ObjectMap<String, Long> inputs = new ObjectMap<>();
+        final Seq<Output> outputs = new Seq<>();
+
+        Entry(String key, long params){
+            this.key = key;
+            this.params = params;
+        }
+    }
+
+    static class Output{
+        final String name, relativePath;
+
+        Output(String name, String relativePath){
+            this.name = name;
+            this.relativePath = relativePath;
+        }
+
+        Fi file(){
+            return spritesDir.child(relativePath).child(name.replaceFirst("unity-", "") + ".png");
+        }
+
+        Fi cached(){
+            return cacheDir.child("regions").child(relativePath).child(name.replaceFirst("unity-", "") + ".png");
+        }
+    }
+}
@@ -8,7 +8,6 @@ import arc.mock.*;
 import arc.struct.*;
 import arc.util.*;
 import arc.util.Log.*;
-import arc.util.async.*;
 import mindustry.async.*;
 import mindustry.core.*;
 import mindustry.ctype.*;
@@ -19,6 +18,7 @@ import unity.ai.kami.*;
 import unity.gen.*;
 import unity.tools.GenAtlas.*;
 
+import java.lang.management.*;
 import java.nio.file.*;
 import java.util.concurrent.*;
 
@@ -35,9 +35,11 @@ public final class Tools{
     public static ModMeta meta;
 
     public static final Fi
-    assetsDir, spritesDir;
+    assetsDir, spritesDir, cacheDir;
 
     public static GenAtlas atlas;
+    /** The worker pool shared by every processing pass, bounded to the available cores. */
+    public static ForkJoinPool pool;
 
     private static final TaskQueue runs = new TaskQueue();
     private static final IntSet[] initialized = new IntSet[ContentType.all.length];
@@ -46,6 +48,7 @@ public final class Tools{
     static{
         assetsDir = new Fi(Paths.get("").toFile());
         spritesDir = assetsDir.child("sprites");
+        cacheDir = new Fi(System.getProperty("unity.tools.cache", "../build/sprite-cache"));
 
         for(var type : ContentType.all){
             int i = type.ordinal();
@@ -57,6 +60,7 @@ public final class Tools{
     private Tools(){}
 
     public static void main(String[] args){
+        long start = Time.millis();
         Log.logger = new NoopLogHandler();
 
         headless = true;
@@ -93,6 +97,7 @@ public final class Tools{
         Log.logger = new DefaultLogHandler();
         loadLogger();
 
+        pool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors(), 1));
         addRegions();
 
         atlas.clear = atlas.find("clear");
@@ -103,21 +108,28 @@ public final class Tools{
         Processors.process();
         runs.run();
 
+        pool.shutdown();
         atlas.dispose();
+
+        long peakHeap = 0L;
+        for(var bean : ManagementFactory.getMemoryPoolMXBeans()){
+            if(bean.getType() == MemoryType.HEAP) peakHeap += bean.getPeakUsage().getUsed();
+        }
+
+        print("Total wall time: " + Time.timeSinceMillis(start) + "ms");
+        print("Peak heap usage: " + (peakHeap >> 20) + "MB, peak loaded pixmaps: " + (atlas.peakLoaded() >> 20) + "MB");
     }
 
     private static void addRegions(){
         print("Adding regions...");
         Time.mark();
 
-        ExecutorService exec = Executors.newCachedThreadPool();
-
         spritesDir.walk(path -> {
             if(!path.extEquals("png")) return;
-            exec.submit(() -> atlas.addRegion(path));
+            pool.execute(() -> atlas.addRegion(path));
         });
 
-        Threads.await(exec);
+        pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
         print("Total time to add regions: " + Time.elapsed() + "ms");
     }
 
@@ -0,0 +1,37 @@
+package unity.tools.proc;
+
+import arc.files.*;
+import arc.util.serialization.*;
+import unity.assets.loaders.*;
+import unity.tools.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import static unity.tools.Tools.*;
+
+/** A processor to bake {@code .g3dj} and {@code .g3db} models into the compact {@code .g3dc} format read at runtime. */
+public class ModelProcessor implements Processor{
+    @Override
+    public void process(ExecutorService exec){
+        Fi models = assetsDir.child("models");
+        if(!models.exists()) return;
+
+        for(Fi file : models.list()){
+            boolean json = file.extEquals("g3dj"), binary = file.extEquals("g3db");
+            if(!json && !binary) continue;
+
+            // Prefer the binary source if both exist, the same way the runtime loader does.
+            if(json && file.sibling(file.nameWithoutExtension() + ".g3db").exists()) continue;
+
+            submit(exec, file.name(), () -> {
+                ModelLoader loader = new ModelLoader(null, binary ? new UBJsonReader() : new JsonReader());
+                Fi out = file.sibling(file.nameWithoutExtension() + "." + ModelCodec.extension);
+
+                try(OutputStream stream = out.write(false, 8192)){
+                    ModelCodec.write(loader.parseModel(file), stream, file.parent().path());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package unity.tools.proc;
+
+import arc.files.*;
+import unity.tools.*;
+import unity.util.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import static unity.tools.Tools.*;
+
+/** A processor to precompile {@code .obj} Wavefront objects and their materials into the compact {@code .objc} format. */
+public class ObjectProcessor implements Processor{
+    @Override
+    public void process(ExecutorService exec){
+        Fi objects = assetsDir.child("objects");
+        if(!objects.exists()) return;
+
+        for(Fi file : objects.list()){
+            if(!file.extEquals("obj")) continue;
+
+            submit(exec, file.name(), () -> {
+                Fi material = file.sibling(file.nameWithoutExtension() + ".mtl");
+
+                WavefrontObject object = new WavefrontObject();
+                object.load(file, material.exists() ? material : null);
+
+                try(OutputStream stream = file.sibling(file.nameWithoutExtension() + "." + WavefrontCodec.extension).write(false, 8192)){
+                    WavefrontCodec.write(object, stream);
+                }
+            });
+        }
+    }
+}
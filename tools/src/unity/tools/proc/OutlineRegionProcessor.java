@@ -11,6 +11,8 @@ import unity.tools.GenAtlas.*;
 import java.lang.invoke.*;
 import java.util.concurrent.*;
 
+import static unity.tools.Tools.*;
+
 /**
  * A processor to outline certain regions in {@link Regions}.
  * @author GlennFolker
@@ -30,15 +32,19 @@ public class OutlineRegionProcessor implements Processor{
                 Color color = Color.valueOf(anno.color());
                 int rad = anno.radius();
 
-                PixmapRegion region = new PixmapRegion(rawRegion.pixmap());
-                Pixmap out = Pixmaps.outline(region, color, rad);
+                long params = SpriteCache.mix(SpriteCache.mix(SpriteCache.codeHash(), color.rgba()), rad);
+                SpriteCache.run("outline-" + name, params, () -> {
+                    // Looked up through the atlas so the cache records the raw region as an input.
+                    PixmapRegion region = new PixmapRegion(atlas.find(rawRegion.name).pixmap());
+                    Pixmap out = Pixmaps.outline(region, color, rad);
 
-                GenRegion outlineRegion = new GenRegion(rawRegion.name + "-outline", out);
-                outlineRegion.relativePath = rawRegion.relativePath;
-                outlineRegion.save();
+                    GenRegion outlineRegion = new GenRegion(rawRegion.name + "-outline", out);
+                    outlineRegion.relativePath = rawRegion.relativePath;
+                    outlineRegion.save();
+                });
 
                 VarHandle handle = MethodHandles.publicLookup().unreflectVarHandle(field);
-                handle.setVolatile(outlineRegion);
+                handle.setVolatile(atlas.find(rawRegion.name + "-outline"));
             });
         }
     }
@@ -19,6 +19,7 @@ import unity.type.*;
 import unity.type.weapons.*;
 import unity.util.*;
 
+import java.util.*;
 import java.util.concurrent.*;
 
 import static mindustry.Vars.*;
@@ -37,220 +38,200 @@ import static unity.tools.Tools.*;
  * @author GlennFolker
  */
 public class UnitProcessor implements Processor{
-    private final ObjectSet<String> outlined = new ObjectSet<>();
+    private final Set<String> outlined = ConcurrentHashMap.newKeySet();
 
     private boolean outline(String region){
-        synchronized(outlined){
-            return outlined.add(region);
-        }
+        return outlined.add(region);
     }
 
     @Override
-    @SuppressWarnings("SuspiciousNameCombination")
     public void process(ExecutorService exec){
-        content.units().each(type -> type instanceof UnityUnitType && !type.isHidden(), (UnityUnitType type) -> submit(exec, type.name, () -> {
-            init(type);
-            load(type);
+        content.units().each(type -> type instanceof UnityUnitType && !type.isHidden(), (UnityUnitType type) -> submit(exec, type.name, () ->
+            SpriteCache.run("unit-" + type.name, params(type), () -> generate(type), this::outline)
+        ));
+    }
 
-            float scl = Draw.scl / 4f;
+    /** @return A hash of the unit type definition and everything it owns that affects the generated sprites. */
+    private long params(UnityUnitType type){
+        long h = SpriteCache.mix(SpriteCache.codeHash(), SpriteCache.hashFields(type));
+        h = SpriteCache.mix(h, SpriteCache.hashFields(type.wormDecal));
+        for(var decoration : type.decorations) h = SpriteCache.mix(h, SpriteCache.hashFields(decoration));
+        for(var ability : type.abilities) h = SpriteCache.mix(h, SpriteCache.hashFields(ability));
+        for(var weapon : type.weapons) h = SpriteCache.mix(SpriteCache.mix(h, SpriteCache.hashFields(weapon)), type.bottomWeapons.contains(weapon) ? 1 : 0);
+        for(var rotor : type.rotors) h = SpriteCache.mix(h, SpriteCache.hashFields(rotor));
+        for(var tentacle : type.tentacles) h = SpriteCache.mix(h, SpriteCache.hashFields(tentacle));
+
+        if(type.segmentWeapons != null){
+            for(var seq : type.segmentWeapons){
+                for(var weapon : seq) h = SpriteCache.mix(h, SpriteCache.hashFields(weapon));
+            }
+        }
 
-            Seq<String> optional = Seq.with("-joint", "-joint-base", "-leg-back", "-leg-base-back", "-foot");
-            Boolf<GenRegion> opt = r -> !optional.contains(e -> r.name.contains(e)) || r.found();
+        return h;
+    }
 
-            Cons3<GenRegion, String, Pixmap> add = (relative, name, pixmap) -> {
-                if(!relative.found()) throw new IllegalArgumentException("Cannot use a non-existent region as a relative point: " + relative);
+    @SuppressWarnings("SuspiciousNameCombination")
+    private void generate(UnityUnitType type){
+        init(type);
+        load(type);
 
-                GenRegion reg = new GenRegion(name, pixmap);
-                reg.relativePath = relative.relativePath;
-                reg.save();
-            };
-
-            Func<TextureRegion, TextureRegion> outliner = t -> {
-                if(!(t instanceof GenRegion at)) return t;
-                if(opt.get(at) && outline(at.name)){
-                    GenRegion reg = new GenRegion(at.name, Pixmaps.outline(new PixmapRegion(at.pixmap()), type.outlineColor, type.outlineRadius));
-                    reg.relativePath = at.relativePath;
-                    reg.save();
-
-                    return reg;
-                }else{
-                    return atlas.find(at.name);
-                }
-            };
+        float scl = Draw.scl / 4f;
 
-            Cons2<TextureRegion, String> outlSeparate = (t, suffix) -> {
-                if(t instanceof GenRegion at && opt.get(at)){
-                    GenRegion reg = new GenRegion(at.name + "-" + suffix, Pixmaps.outline(new PixmapRegion(at.pixmap()), type.outlineColor, type.outlineRadius));
-                    reg.relativePath = at.relativePath;
-                    reg.save();
-                }
-            };
+        Seq<String> optional = Seq.with("-joint", "-joint-base", "-leg-back", "-leg-base-back", "-foot");
+        Boolf<GenRegion> opt = r -> !optional.contains(e -> r.name.contains(e)) || r.found();
 
-            Unit unit = type.constructor.get();
+        Cons3<GenRegion, String, Pixmap> add = (relative, name, pixmap) -> {
+            if(!relative.found()) throw new IllegalArgumentException("Cannot use a non-existent region as a relative point: " + relative);
 
-            if(unit instanceof Legsc || unit instanceof TriJointLegsc){
-                outliner.get(type.jointRegion);
-                outliner.get(type.footRegion);
-                outliner.get(type.legBaseRegion);
-                outliner.get(type.baseJointRegion);
-                outliner.get(type.legRegion);
+            GenRegion reg = new GenRegion(name, pixmap);
+            reg.relativePath = relative.relativePath;
+            reg.save();
+        };
 
-                outliner.get(type.legMiddleRegion);
+        Func<TextureRegion, TextureRegion> outliner = t -> {
+            if(!(t instanceof GenRegion at)) return t;
+            if(opt.get(at) && outline(at.name)){
+                GenRegion reg = new GenRegion(at.name, Pixmaps.outline(new PixmapRegion(at.pixmap()), type.outlineColor, type.outlineRadius));
+                reg.relativePath = at.relativePath;
+                reg.save();
 
-                outliner.get(type.legBackRegion);
-                outliner.get(type.legBaseBackRegion);
-                outliner.get(type.footBackRegion);
+                return reg;
+            }else{
+                return atlas.find(at.name);
             }
+        };
 
-            if(unit instanceof Mechc){
-                outliner.get(type.legRegion);
+        Cons2<TextureRegion, String> outlSeparate = (t, suffix) -> {
+            if(t instanceof GenRegion at && opt.get(at)){
+                GenRegion reg = new GenRegion(at.name + "-" + suffix, Pixmaps.outline(new PixmapRegion(at.pixmap()), type.outlineColor, type.outlineRadius));
+                reg.relativePath = at.relativePath;
+                reg.save();
             }
+        };
 
-            if(unit instanceof Copterc){
-                for(var rotor : type.rotors){
-                    GenRegion region = conv(rotor.bladeRegion);
-
-                    outlSeparate.get(region, "outline");
-                    outliner.get(rotor.topRegion);
+        Unit unit = type.constructor.get();
 
-                    if(atlas.has(rotor.name + "-blade-ghost") || !atlas.has(rotor.name + "-blade")){
-                        rotor.load();
-                        continue;
-                    }
+        if(unit instanceof Legsc || unit instanceof TriJointLegsc){
+            outliner.get(type.jointRegion);
+            outliner.get(type.footRegion);
+            outliner.get(type.legBaseRegion);
+            outliner.get(type.baseJointRegion);
+            outliner.get(type.legRegion);
 
-                    Pixmap bladeSprite = region.pixmap();
+            outliner.get(type.legMiddleRegion);
 
-                    // This array is to be written in the order where colors at index 0 are located towards the center,
-                    // and colors at the end of the array is located towards at the edge.
-                    int[] heightAverageColors = new int[(bladeSprite.height >> 1) + 1]; // Go one extra so it becomes transparent especially if blade is full length
-                    int bladeLength = populateColorArray(heightAverageColors, bladeSprite, bladeSprite.height >> 1);
+            outliner.get(type.legBackRegion);
+            outliner.get(type.legBaseBackRegion);
+            outliner.get(type.footBackRegion);
+        }
 
-                    Pixmap ghostSprite = new Pixmap(bladeSprite.height, bladeSprite.height);
-                    drawRadial(ghostSprite, heightAverageColors, bladeLength);
-                    add.get(region, rotor.name + "-blade-ghost", ghostSprite);
+        if(unit instanceof Mechc){
+            outliner.get(type.legRegion);
+        }
 
-                    if(atlas.has(rotor.name + "-blade-shade")){
-                        rotor.load();
-                        continue;
-                    }
+        if(unit instanceof Copterc){
+            for(var rotor : type.rotors){
+                GenRegion region = conv(rotor.bladeRegion);
 
-                    Pixmap shadeSprite = new Pixmap(bladeSprite.height, bladeSprite.height);
-                    drawShade(shadeSprite, bladeLength);
-                    add.get(region, rotor.name + "-blade-shade", shadeSprite);
+                outlSeparate.get(region, "outline");
+                outliner.get(rotor.topRegion);
 
+                if(atlas.has(rotor.name + "-blade-ghost") || !atlas.has(rotor.name + "-blade")){
                     rotor.load();
+                    continue;
                 }
-            }
 
-            if(unit instanceof WormDefaultUnit || unit instanceof Wormc){
-                outlSeparate.get(type.segmentRegion, "outline");
-                outlSeparate.get(type.tailRegion, "outline");
+                Pixmap bladeSprite = region.pixmap();
 
-                for(Seq<Weapon> seq : type.segmentWeapons){
-                    for(Weapon w : seq){
-                        outlSeparate.get(w.region, "outline");
-                    }
-                }
+                // This array is to be written in the order where colors at index 0 are located towards the center,
+                // and colors at the end of the array is located towards at the edge.
+                int[] heightAverageColors = new int[(bladeSprite.height >> 1) + 1]; // Go one extra so it becomes transparent especially if blade is full length
+                int bladeLength = populateColorArray(heightAverageColors, bladeSprite, bladeSprite.height >> 1);
 
-                if(type.wormDecal != null){
-                    var wd = type.wormDecal;
-                    outliner.get(wd.baseRegion);
-                    outliner.get(wd.endRegion);
-                    for(var reg : wd.segmentRegions){
-                        outliner.get(reg);
-                    }
+                Pixmap ghostSprite = new Pixmap(bladeSprite.height, bladeSprite.height);
+                drawRadial(ghostSprite, heightAverageColors, bladeLength);
+                add.get(region, rotor.name + "-blade-ghost", ghostSprite);
+
+                if(atlas.has(rotor.name + "-blade-shade")){
+                    rotor.load();
+                    continue;
                 }
-            }
 
-            for(var reg : type.abilityRegions){
-                if(reg.found()) outliner.get(reg);
-            }
+                Pixmap shadeSprite = new Pixmap(bladeSprite.height, bladeSprite.height);
+                drawShade(shadeSprite, bladeLength);
+                add.get(region, rotor.name + "-blade-shade", shadeSprite);
 
-            for(var tentacle : type.tentacles){
-                outliner.get(tentacle.region);
-                outliner.get(tentacle.tipRegion);
+                rotor.load();
             }
+        }
 
-            Pixmap icon = Pixmaps.outline(new PixmapRegion(conv(type.region).pixmap()), type.outlineColor, type.outlineRadius);
-            add.get(conv(type.region), type.name + "-outline", icon.copy());
+        if(unit instanceof WormDefaultUnit || unit instanceof Wormc){
+            outlSeparate.get(type.segmentRegion, "outline");
+            outlSeparate.get(type.tailRegion, "outline");
 
-            for(var decoration : type.decorations){
-                if(!decoration.top) decoration.drawIcon(r -> conv(r).pixmap(), icon, outliner);
+            for(Seq<Weapon> seq : type.segmentWeapons){
+                for(Weapon w : seq){
+                    outlSeparate.get(w.region, "outline");
+                }
             }
 
-            icon.draw(Pixmaps.outline(new PixmapRegion(conv(type.region).pixmap()), type.outlineColor, type.outlineRadius), true);
-
-            if(unit instanceof Mechc){
-                GraphicUtils.drawCenter(icon, conv(type.baseRegion).pixmap());
-                GraphicUtils.drawCenter(icon, conv(type.legRegion).pixmap());
-
-                Pixmap flip = conv(type.legRegion).pixmap().flipX();
-                GraphicUtils.drawCenter(icon, flip);
-                flip.dispose();
-
-                icon.draw(conv(type.region).pixmap(), true);
+            if(type.wormDecal != null){
+                var wd = type.wormDecal;
+                outliner.get(wd.baseRegion);
+                outliner.get(wd.endRegion);
+                for(var reg : wd.segmentRegions){
+                    outliner.get(reg);
+                }
             }
+        }
 
-            for(var weapon : type.weapons){
-                if(weapon.name.isEmpty()) continue;
-
-                GenRegion reg = conv(weapon.region);
-                add.get(reg, weapon.name + "-outline", Pixmaps.outline(new PixmapRegion(reg.pixmap()), type.outlineColor, type.outlineRadius));
+        for(var reg : type.abilityRegions){
+            if(reg.found()) outliner.get(reg);
+        }
 
-                if(weapon instanceof MultiBarrelWeapon m && outline(weapon.name + "-barrel")){
-                    outlSeparate.get(m.barrelRegion, "outline");
-                }
+        for(var tentacle : type.tentacles){
+            outliner.get(tentacle.region);
+            outliner.get(tentacle.tipRegion);
+        }
 
-                if(weapon instanceof MortarWeapon m){
-                    outliner.get(m.barrelRegion);
-                    outliner.get(m.barrelEndRegion);
-                }
+        Pixmap icon = Pixmaps.outline(new PixmapRegion(conv(type.region).pixmap()), type.outlineColor, type.outlineRadius);
+        add.get(conv(type.region), type.name + "-outline", icon.copy());
 
-                if(!weapon.top || type.bottomWeapons.contains(weapon)){
-                    GenRegion out = atlas.find(weapon.name + "-outline");
-                    Pixmap pix = out.pixmap().copy();
+        for(var decoration : type.decorations){
+            if(!decoration.top) decoration.drawIcon(r -> conv(r).pixmap(), icon, outliner);
+        }
 
-                    if(weapon.flipSprite){
-                        Pixmap newPix = pix.flipX();
-                        pix.dispose();
-                        pix = newPix;
-                    }
+        icon.draw(Pixmaps.outline(new PixmapRegion(conv(type.region).pixmap()), type.outlineColor, type.outlineRadius), true);
 
-                    icon.draw(pix,
-                        (int)(weapon.x / scl + icon.width / 2f - out.width / 2f),
-                        (int)(-weapon.y / scl + icon.height / 2f - out.height / 2f),
-                        true
-                    );
+        if(unit instanceof Mechc){
+            GraphicUtils.drawCenter(icon, conv(type.baseRegion).pixmap());
+            GraphicUtils.drawCenter(icon, conv(type.legRegion).pixmap());
 
-                    if(weapon.mirror){
-                        Pixmap mirror = pix.flipX();
-
-                        icon.draw(mirror,
-                            (int)(-weapon.x / scl + icon.width / 2f - out.width / 2f),
-                            (int)(-weapon.y / scl + icon.height / 2f - out.height / 2f),
-                            true
-                        );
-                        mirror.dispose();
-                    }
-                    pix.dispose();
-                }
-                weapon.load();
-            }
+            Pixmap flip = conv(type.legRegion).pixmap().flipX();
+            GraphicUtils.drawCenter(icon, flip);
+            flip.dispose();
 
             icon.draw(conv(type.region).pixmap(), true);
-            int baseColor = Color.valueOf("ffa665").rgba();
+        }
 
-            Pixmap baseCell = conv(type.cellRegion).pixmap();
-            Pixmap cell = new Pixmap(type.cellRegion.width, type.cellRegion.height);
-            cell.each((x, y) -> cell.setRaw(x, y, Color.muli(baseCell.getRaw(x, y), baseColor)));
+        for(var weapon : type.weapons){
+            if(weapon.name.isEmpty()) continue;
 
-            icon.draw(cell, icon.width / 2 - cell.width / 2, icon.height / 2 - cell.height / 2, true);
+            GenRegion reg = conv(weapon.region);
+            add.get(reg, weapon.name + "-outline", Pixmaps.outline(new PixmapRegion(reg.pixmap()), type.outlineColor, type.outlineRadius));
 
-            for(var weapon : type.weapons){
-                if(weapon.name.isEmpty() || type.bottomWeapons.contains(weapon)) continue;
+            if(weapon instanceof MultiBarrelWeapon m && outline(weapon.name + "-barrel")){
+                outlSeparate.get(m.barrelRegion, "outline");
+            }
 
-                GenRegion wepReg = weapon.top ? atlas.find(weapon.name + "-outline") : conv(weapon.region);
-                Pixmap pix = wepReg.pixmap().copy();
+            if(weapon instanceof MortarWeapon m){
+                outliner.get(m.barrelRegion);
+                outliner.get(m.barrelEndRegion);
+            }
+
+            if(!weapon.top || type.bottomWeapons.contains(weapon)){
+                GenRegion out = atlas.find(weapon.name + "-outline");
+                Pixmap pix = out.pixmap().copy();
 
                 if(weapon.flipSprite){
                     Pixmap newPix = pix.flipX();
@@ -259,8 +240,8 @@ public class UnitProcessor implements Processor{
                 }
 
                 icon.draw(pix,
-                    (int)(weapon.x / scl + icon.width / 2f - weapon.region.width / 2f),
-                    (int)(-weapon.y / scl + icon.height / 2f - weapon.region.height / 2f),
+                    (int)(weapon.x / scl + icon.width / 2f - out.width / 2f),
+                    (int)(-weapon.y / scl + icon.height / 2f - out.height / 2f),
                     true
                 );
 
@@ -268,45 +249,118 @@ public class UnitProcessor implements Processor{
                     Pixmap mirror = pix.flipX();
 
                     icon.draw(mirror,
-                        (int)(-weapon.x / scl + icon.width / 2f - weapon.region.width / 2f),
-                        (int)(-weapon.y / scl + icon.height / 2f - weapon.region.height / 2f),
+                        (int)(-weapon.x / scl + icon.width / 2f - out.width / 2f),
+                        (int)(-weapon.y / scl + icon.height / 2f - out.height / 2f),
                         true
                     );
-
                     mirror.dispose();
                 }
+                pix.dispose();
+            }
+            weapon.load();
+        }
+
+        icon.draw(conv(type.region).pixmap(), true);
+        int baseColor = Color.valueOf("ffa665").rgba();
+
+        Pixmap baseCell = conv(type.cellRegion).pixmap();
+        Pixmap cell = new Pixmap(type.cellRegion.width, type.cellRegion.height);
+        cell.each((x, y) -> cell.setRaw(x, y, Color.muli(baseCell.getRaw(x, y), baseColor)));
+
+        icon.draw(cell, icon.width / 2 - cell.width / 2, icon.height / 2 - cell.height / 2, true);
+
+        for(var weapon : type.weapons){
+            if(weapon.name.isEmpty() || type.bottomWeapons.contains(weapon)) continue;
 
+            GenRegion wepReg = weapon.top ? atlas.find(weapon.name + "-outline") : conv(weapon.region);
+            Pixmap pix = wepReg.pixmap().copy();
+
+            if(weapon.flipSprite){
+                Pixmap newPix = pix.flipX();
                 pix.dispose();
-                weapon.load();
+                pix = newPix;
             }
 
-            for(var decoration : type.decorations){
-                if(decoration.top) decoration.drawIcon(r -> conv(r).pixmap(), icon, outliner);
+            icon.draw(pix,
+                (int)(weapon.x / scl + icon.width / 2f - weapon.region.width / 2f),
+                (int)(-weapon.y / scl + icon.height / 2f - weapon.region.height / 2f),
+                true
+            );
+
+            if(weapon.mirror){
+                Pixmap mirror = pix.flipX();
+
+                icon.draw(mirror,
+                    (int)(-weapon.x / scl + icon.width / 2f - weapon.region.width / 2f),
+                    (int)(-weapon.y / scl + icon.height / 2f - weapon.region.height / 2f),
+                    true
+                );
+
+                mirror.dispose();
             }
 
-            if(unit instanceof Copterc){
-                Pixmap propellers = new Pixmap(icon.width, icon.height);
-                Pixmap tops = new Pixmap(icon.width, icon.height);
+            pix.dispose();
+            weapon.load();
+        }
 
-                for(var rotor : type.rotors){
-                    Pixmap bladeSprite = conv(rotor.bladeRegion).pixmap();
+        for(var decoration : type.decorations){
+            if(decoration.top) decoration.drawIcon(r -> conv(r).pixmap(), icon, outliner);
+        }
 
-                    float bladeSeparation = 360f / rotor.bladeCount;
+        if(unit instanceof Copterc){
+            Pixmap propellers = new Pixmap(icon.width, icon.height);
+            Pixmap tops = new Pixmap(icon.width, icon.height);
+
+            for(var rotor : type.rotors){
+                Pixmap bladeSprite = conv(rotor.bladeRegion).pixmap();
+
+                float bladeSeparation = 360f / rotor.bladeCount;
+
+                float propXCenter = (rotor.x / scl + icon.width / 2f) - 0.5f;
+                float propYCenter = (-rotor.y / scl + icon.height / 2f) - 0.5f;
+
+                float bladeSpriteXCenter = bladeSprite.width / 2f - 0.5f;
+                float bladeSpriteYCenter = bladeSprite.height / 2f - 0.5f;
+
+                int propWidth = propellers.width;
+                int propHeight = propellers.height;
+                for(int x = 0; x < propWidth; x++){
+                    for(int y = 0; y < propHeight; y++){
+                        for(int blade = 0; blade < rotor.bladeCount; blade++){
+                            float deg = blade * bladeSeparation;
+                            float cos = Mathf.cosDeg(deg);
+                            float sin = Mathf.sinDeg(deg);
+                            int col = GraphicUtils.getColor(
+                                new PixmapRegion(bladeSprite),
+                                ((propXCenter - x) * cos + (propYCenter - y) * sin) + bladeSpriteXCenter,
+                                ((propXCenter - x) * sin - (propYCenter - y) * cos) + bladeSpriteYCenter
+                            );
+
+                            propellers.setRaw(x, y, Pixmap.blend(
+                                propellers.getRaw(x, y),
+                                col
+                            ));
+                        }
+                    }
+                }
+
+                Pixmap topSprite = conv(rotor.topRegion).pixmap();
+                int topXCenter = (int)(rotor.x / scl + icon.width / 2f - topSprite.width / 2f);
+                int topYCenter = (int)(-rotor.y / scl + icon.height / 2f - topSprite.height / 2f);
 
-                    float propXCenter = (rotor.x / scl + icon.width / 2f) - 0.5f;
-                    float propYCenter = (-rotor.y / scl + icon.height / 2f) - 0.5f;
+                tops.draw(topSprite, topXCenter, topYCenter, true);
 
-                    float bladeSpriteXCenter = bladeSprite.width / 2f - 0.5f;
-                    float bladeSpriteYCenter = bladeSprite.height / 2f - 0.5f;
+                if(rotor.mirror){
+                    propXCenter = (-rotor.x / scl + icon.width / 2f) - 0.5f;
+                    topXCenter = (int)(-rotor.x / scl + icon.width / 2f - topSprite.width / 2f);
 
-                    int propWidth = propellers.width;
-                    int propHeight = propellers.height;
                     for(int x = 0; x < propWidth; x++){
                         for(int y = 0; y < propHeight; y++){
                             for(int blade = 0; blade < rotor.bladeCount; blade++){
                                 float deg = blade * bladeSeparation;
                                 float cos = Mathf.cosDeg(deg);
                                 float sin = Mathf.sinDeg(deg);
+
                                 int col = GraphicUtils.getColor(
                                     new PixmapRegion(bladeSprite),
                                     ((propXCenter - x) * cos + (propYCenter - y) * sin) + bladeSpriteXCenter,
@@ -321,100 +375,68 @@ public class UnitProcessor implements Processor{
                         }
                     }
 
-                    Pixmap topSprite = conv(rotor.topRegion).pixmap();
-                    int topXCenter = (int)(rotor.x / scl + icon.width / 2f - topSprite.width / 2f);
-                    int topYCenter = (int)(-rotor.y / scl + icon.height / 2f - topSprite.height / 2f);
-
                     tops.draw(topSprite, topXCenter, topYCenter, true);
-
-                    if(rotor.mirror){
-                        propXCenter = (-rotor.x / scl + icon.width / 2f) - 0.5f;
-                        topXCenter = (int)(-rotor.x / scl + icon.width / 2f - topSprite.width / 2f);
-
-                        for(int x = 0; x < propWidth; x++){
-                            for(int y = 0; y < propHeight; y++){
-                                for(int blade = 0; blade < rotor.bladeCount; blade++){
-                                    float deg = blade * bladeSeparation;
-                                    float cos = Mathf.cosDeg(deg);
-                                    float sin = Mathf.sinDeg(deg);
-
-                                    int col = GraphicUtils.getColor(
-                                        new PixmapRegion(bladeSprite),
-                                        ((propXCenter - x) * cos + (propYCenter - y) * sin) + bladeSpriteXCenter,
-                                        ((propXCenter - x) * sin - (propYCenter - y) * cos) + bladeSpriteYCenter
-                                    );
-
-                                    propellers.setRaw(x, y, Pixmap.blend(
-                                        propellers.getRaw(x, y),
-                                        col
-                                    ));
-                                }
-                            }
-                        }
-
-                        tops.draw(topSprite, topXCenter, topYCenter, true);
-                    }
                 }
+            }
 
-                Pixmap propOutlined = Pixmaps.outline(new PixmapRegion(propellers), type.outlineColor, type.outlineRadius);
-                icon.draw(propOutlined, true);
-                icon.draw(tops, true);
+            Pixmap propOutlined = Pixmaps.outline(new PixmapRegion(propellers), type.outlineColor, type.outlineRadius);
+            icon.draw(propOutlined, true);
+            icon.draw(tops, true);
 
-                propellers.dispose();
-                tops.dispose();
+            propellers.dispose();
+            tops.dispose();
 
-                Pixmap payloadCell = new Pixmap(baseCell.width, baseCell.height);
-                int cellCenterX = payloadCell.width / 2;
-                int cellCenterY = payloadCell.height / 2;
-                int propCenterX = propOutlined.width / 2;
-                int propCenterY = propOutlined.height / 2;
+            Pixmap payloadCell = new Pixmap(baseCell.width, baseCell.height);
+            int cellCenterX = payloadCell.width / 2;
+            int cellCenterY = payloadCell.height / 2;
+            int propCenterX = propOutlined.width / 2;
+            int propCenterY = propOutlined.height / 2;
 
-                payloadCell.each((x, y) -> {
-                    int cellX = x - cellCenterX;
-                    int cellY = y - cellCenterY;
+            payloadCell.each((x, y) -> {
+                int cellX = x - cellCenterX;
+                int cellY = y - cellCenterY;
 
-                    float alpha = SColor.a(propOutlined.get(cellX + propCenterX, cellY + propCenterY));
-                    payloadCell.setRaw(x, y, SColor.mul(baseCell.getRaw(x, y), 1f, 1f, 1f, 1f - alpha));
-                });
+                float alpha = SColor.a(propOutlined.get(cellX + propCenterX, cellY + propCenterY));
+                payloadCell.setRaw(x, y, SColor.mul(baseCell.getRaw(x, y), 1f, 1f, 1f, 1f - alpha));
+            });
 
-                propOutlined.dispose();
-                add.get(conv(type.region), type.name + "-cell-payload", payloadCell);
-            }
+            propOutlined.dispose();
+            add.get(conv(type.region), type.name + "-cell-payload", payloadCell);
+        }
 
-            add.get(conv(type.region), type.name + "-full", icon);
+        add.get(conv(type.region), type.name + "-full", icon);
 
-            // Only generate wreck regions if it is larger than zenith and does not come from End faction
-            if(type.forceWreckRegion || (type.hitSize > UnitTypes.zenith.hitSize && FactionMeta.map(type) != Faction.end)){
-                Rand rand = new Rand();
-                rand.setSeed(type.name.hashCode());
+        // Only generate wreck regions if it is larger than zenith and does not come from End faction
+        if(type.forceWreckRegion || (type.hitSize > UnitTypes.zenith.hitSize && FactionMeta.map(type) != Faction.end)){
+            Rand rand = new Rand();
+            rand.setSeed(type.name.hashCode());
 
-                int splits = 3;
-                float degrees = rand.random(360f);
-                float offsetRange = Math.max(icon.width, icon.height) * 0.15f;
-                Vec2 offset = new Vec2(1, 1).rotate(rand.random(360f)).setLength(rand.random(0, offsetRange)).add(icon.width / 2f, icon.height / 2f);
+            int splits = 3;
+            float degrees = rand.random(360f);
+            float offsetRange = Math.max(icon.width, icon.height) * 0.15f;
+            Vec2 offset = new Vec2(1, 1).rotate(rand.random(360f)).setLength(rand.random(0, offsetRange)).add(icon.width / 2f, icon.height / 2f);
 
-                Pixmap[] wrecks = new Pixmap[splits];
-                for(int i = 0; i < wrecks.length; i++){
-                    wrecks[i] = new Pixmap(icon.width, icon.height);
-                }
+            Pixmap[] wrecks = new Pixmap[splits];
+            for(int i = 0; i < wrecks.length; i++){
+                wrecks[i] = new Pixmap(icon.width, icon.height);
+            }
 
-                VoronoiNoise vn = new VoronoiNoise(type.id, true);
+            VoronoiNoise vn = new VoronoiNoise(type.id, true);
 
-                icon.each((x, y) -> {
-                    boolean rValue = Math.max(Ridged.noise2d(1, x, y, 3, 1f / (20f + icon.width / 8f)), 0) > 0.16f;
-                    boolean vval = vn.noise(x, y, 1f / (14f + icon.width/40f)) > 0.47;
+            icon.each((x, y) -> {
+                boolean rValue = Math.max(Ridged.noise2d(1, x, y, 3, 1f / (20f + icon.width / 8f)), 0) > 0.16f;
+                boolean vval = vn.noise(x, y, 1f / (14f + icon.width/40f)) > 0.47;
 
-                    float dst =  offset.dst(x, y);
-                    float noise = (float)Noise.rawNoise(dst / (9f + icon.width / 70f)) * (60 + icon.width / 30f);
-                    int section = (int)Mathf.clamp(Mathf.mod(offset.angleTo(x, y) + noise + degrees, 360f) / 360f * splits, 0, splits - 1);
-                    if(!vval) wrecks[section].setRaw(x, y, Color.muli(icon.getRaw(x, y), rValue ? 0.7f : 1f));
-                });
+                float dst =  offset.dst(x, y);
+                float noise = (float)Noise.rawNoise(dst / (9f + icon.width / 70f)) * (60 + icon.width / 30f);
+                int section = (int)Mathf.clamp(Mathf.mod(offset.angleTo(x, y) + noise + degrees, 360f) / 360f * splits, 0, splits - 1);
+                if(!vval) wrecks[section].setRaw(x, y, Color.muli(icon.getRaw(x, y), rValue ? 0.7f : 1f));
+            });
 
-                for(int i = 0; i < wrecks.length; i++){
-                    add.get(conv(type.region), type.name + "-wreck" + i, wrecks[i]);
-                }
+            for(int i = 0; i < wrecks.length; i++){
+                add.get(conv(type.region), type.name + "-wreck" + i, wrecks[i]);
             }
-        }));
+        }
     }
 
     private int populateColorArray(int[] heightAverageColors, Pixmap bladeSprite, int halfHeight){